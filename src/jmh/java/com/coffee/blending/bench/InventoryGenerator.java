@@ -0,0 +1,94 @@
+package com.coffee.blending.bench;
+
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of realistic green-bean inventories.
+ * Attribute distributions follow the Vietnamese market data used by DemoRunner:
+ * Robusta (~60%), Arabica (~25%), Culi (~15%), plus ~5% of lots with empty stock.
+ */
+public final class InventoryGenerator {
+
+    private enum Variety {
+        //          price    acid  bitter sweet caffeine
+        ROBUSTA(125000, 4.2, 7.8, 3.5, 2.45),
+        ARABICA(220000, 7.8, 3.2, 6.8, 1.2),
+        CULI(145000, 5.0, 9.0, 3.5, 3.0);
+
+        final double price, acid, bitter, sweet, caffeine;
+
+        Variety(double price, double acid, double bitter, double sweet, double caffeine) {
+            this.price = price;
+            this.acid = acid;
+            this.bitter = bitter;
+            this.sweet = sweet;
+            this.caffeine = caffeine;
+        }
+    }
+
+    private final Random random;
+
+    public InventoryGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public List<CoffeeBatch> generate(int n) {
+        List<CoffeeBatch> batches = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            double roll = random.nextDouble();
+            Variety v = roll < 0.60 ? Variety.ROBUSTA : roll < 0.85 ? Variety.ARABICA : Variety.CULI;
+
+            double stock = random.nextDouble() < 0.05 ? 0.0 : 50 + random.nextDouble() * 4950;
+
+            batches.add(CoffeeBatch.builder()
+                    .id(String.format("G%06d_%s", i, v.name()))
+                    .name(v.name() + " lot " + i)
+                    .price(Math.round(gauss(v.price, v.price * 0.08, v.price * 0.7, v.price * 1.3) / 1000) * 1000)
+                    .acid(gauss(v.acid, 0.4, 0, 10))
+                    .bitter(gauss(v.bitter, 0.4, 0, 10))
+                    .sweet(gauss(v.sweet, 0.4, 0, 10))
+                    .caffeine(gauss(v.caffeine, 0.12, 0.5, 4))
+                    .availableStock(stock)
+                    .daysToExpiry(10 + random.nextInt(356))
+                    .build());
+        }
+        return batches;
+    }
+
+    /**
+     * Target typical for each market profile (mode drives Hybrid's profile selection).
+     */
+    public static BlendingTarget targetFor(BlendingTarget.OptimizationMode mode) {
+        BlendingTarget.BlendingTargetBuilder b = BlendingTarget.builder()
+                .mode(mode)
+                .totalOutputKg(100)
+                .minRatio(0.05)
+                .maxBatchTypes(3);
+        return switch (mode) {
+            case PRICE_OPTIMIZED -> b.targetPrice(130000)
+                    .targetAcid(4.5).targetBitter(8.0).targetSweet(3.5).targetCaffeine(2.6).build();
+            case BALANCED -> b.targetPrice(160000)
+                    .targetAcid(5.5).targetBitter(6.0).targetSweet(5.0).targetCaffeine(2.0).build();
+            case QUALITY_OPTIMIZED -> b.targetPrice(200000)
+                    .targetAcid(7.0).targetBitter(4.0).targetSweet(6.5).targetCaffeine(1.5).build();
+        };
+    }
+
+    public static OptimizerParams paramsFor(BlendingTarget.OptimizationMode mode) {
+        return switch (mode) {
+            case PRICE_OPTIMIZED -> OptimizerParams.forMassMarket();
+            case BALANCED -> OptimizerParams.forBalancedMarket();
+            case QUALITY_OPTIMIZED -> OptimizerParams.forSpecialtyMarket();
+        };
+    }
+
+    private double gauss(double mean, double sd, double min, double max) {
+        return Math.max(min, Math.min(max, mean + random.nextGaussian() * sd));
+    }
+}
@@ -0,0 +1,132 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.bench.InventoryGenerator;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.metrics.OptimizerMetrics;
+import com.coffee.blending.tracing.SolverTracer;
+import com.google.ortools.linearsolver.MPSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solves the same seeded instances with {@link Formulation#STANDARD} and {@link Formulation#TIGHT},
+ * fails if any status or optimum differs, and reports B&amp;B nodes and solve time for both.
+ *
+ * <pre>
+ * ./gradlew checkFormulation
+ * ./gradlew checkFormulation -PcheckArgs="--sizes 50,500,5000 --instances 4"
+ * </pre>
+ */
+public final class FormulationCheck {
+
+    private static final double OBJECTIVE_TOLERANCE = 1e-6;
+
+    private int[] sizes = {4, 50, 500, 5000};
+    private int instances = 3;
+    private long seed = 20240601L;
+
+    record Outcome(MPSolver.ResultStatus status, double objective, long nodes, double millis) {
+    }
+
+    public static void main(String[] args) {
+        FormulationCheck check = new FormulationCheck();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes" -> check.sizes = Arrays.stream(args[i + 1].split(","))
+                        .map(String::trim).mapToInt(Integer::parseInt).sorted().toArray();
+                case "--instances" -> check.instances = Integer.parseInt(args[i + 1]);
+                case "--seed" -> check.seed = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        System.exit(check.run() ? 0 : 1);
+    }
+
+    private boolean run() {
+        NativeSolverLoader nativeLoader = new NativeSolverLoader();
+        nativeLoader.ensureLoaded();
+        OptimizerMetrics metrics = new OptimizerMetrics(new SimpleMeterRegistry());
+        SolverTracer tracer = new SolverTracer(false);
+        SolverTuning standard = new SolverTuning("", Formulation.STANDARD);
+        SolverTuning tight = new SolverTuning("", Formulation.TIGHT);
+        GoogleOrToolsOptimizer googleStd = new GoogleOrToolsOptimizer(nativeLoader, metrics, tracer, standard);
+        GoogleOrToolsOptimizer googleTight = new GoogleOrToolsOptimizer(nativeLoader, metrics, tracer, tight);
+        HybridOptimizer hybridStd = new HybridOptimizer(nativeLoader, metrics, tracer, standard);
+        HybridOptimizer hybridTight = new HybridOptimizer(nativeLoader, metrics, tracer, tight);
+
+        System.out.printf("%-22s %-10s %12s %12s %10s %10s%n",
+                "instance", "status", "nodes std", "nodes tight", "ms std", "ms tight");
+        int mismatches = 0;
+        long nodesStd = 0, nodesTight = 0;
+        double msStd = 0, msTight = 0;
+
+        for (int size : sizes) {
+            for (int k = 0; k < instances; k++) {
+                for (BlendingTarget.OptimizationMode mode : BlendingTarget.OptimizationMode.values()) {
+                    for (String algorithm : List.of("DEFAULT", "HYBRID")) {
+                        List<CoffeeBatch> batches = new InventoryGenerator(seed + 1000L * size + k).generate(size);
+                        if ("HYBRID".equals(algorithm)) {
+                            batches = HybridOptimizer.filterUsable(batches);
+                        }
+                        BlendingTarget target = InventoryGenerator.targetFor(mode);
+                        boolean hybrid = "HYBRID".equals(algorithm);
+                        OptimizerParams params = hybrid
+                                ? HybridOptimizer.resolveProfile(InventoryGenerator.paramsFor(mode), target)
+                                : InventoryGenerator.paramsFor(mode);
+
+                        BatchColumns columns = BatchColumns.of(batches);
+                        Outcome a = solve(hybrid ? hybridStd : googleStd, columns, target, params);
+                        Outcome b = solve(hybrid ? hybridTight : googleTight, columns, target, params);
+                        String label = algorithm.charAt(0) + "-" + mode.name().charAt(0) + "-" + size + "-" + k;
+                        // Time-limited runs can stop at different incumbents; only proven optima must agree
+                        boolean same = a.status() == b.status()
+                                && (a.status() != MPSolver.ResultStatus.OPTIMAL
+                                || Math.abs(a.objective() - b.objective())
+                                <= OBJECTIVE_TOLERANCE * Math.max(1.0, Math.abs(a.objective())));
+                        if (!same) {
+                            mismatches++;
+                        }
+                        System.out.printf("%-22s %-10s %12d %12d %10.1f %10.1f%s%n", label, a.status(),
+                                a.nodes(), b.nodes(), a.millis(), b.millis(),
+                                same ? "" : "  MISMATCH " + b.status() + " " + a.objective() + " vs " + b.objective());
+                        nodesStd += a.nodes();
+                        nodesTight += b.nodes();
+                        msStd += a.millis();
+                        msTight += b.millis();
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%nTotal nodes: %d -> %d (%.1f%%), solve time: %.1f ms -> %.1f ms (%.1f%%)%n",
+                nodesStd, nodesTight, change(nodesStd, nodesTight), msStd, msTight, change(msStd, msTight));
+        System.out.printf("Mismatches: %d%n", mismatches);
+        return mismatches == 0;
+    }
+
+    private static Outcome solve(BlendingOptimizer engine, BatchColumns batches, BlendingTarget target,
+                                 OptimizerParams params) {
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        try {
+            SolverTuning.applyTimeLimit(solver, params);
+            BlendingModel model = engine instanceof HybridOptimizer h
+                    ? h.buildModel(solver, batches, target, params)
+                    : ((GoogleOrToolsOptimizer) engine).buildModel(solver, batches, target, params);
+            long start = System.nanoTime();
+            MPSolver.ResultStatus status = solver.solve();
+            double millis = (System.nanoTime() - start) / 1e6;
+            return new Outcome(status, model.objective.value(), solver.nodes(), millis);
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100.0 / before;
+    }
+}
@@ -0,0 +1,131 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.bench.InventoryGenerator;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.metrics.OptimizerMetrics;
+import com.coffee.blending.tracing.SolverTracer;
+import com.google.ortools.linearsolver.MPSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model build, native solve and end-to-end optimize, measured separately for both
+ * engines across inventory sizes and market profiles.
+ * Lives in the engine package to reach the package-private buildModel().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class OptimizerBenchmark {
+
+    private static final long SEED = 20240601L;
+
+    @Param({"4", "50", "500", "5000", "50000"})
+    public int n;
+
+    @Param({"PRICE_OPTIMIZED", "BALANCED", "QUALITY_OPTIMIZED"})
+    public BlendingTarget.OptimizationMode mode;
+
+    @Param({"DEFAULT", "HYBRID"})
+    public String algorithm;
+
+    // "tuned" applies the ScipTuner profile (-Dblending.solver.profile, default build/tuning/scip-profile.json)
+    @Param({"default", "tuned"})
+    public String scip;
+
+    @Param({"STANDARD", "TIGHT"})
+    public Formulation formulation;
+
+    private List<CoffeeBatch> batches;
+    private BatchColumns columns;
+    private BlendingTarget target;
+    private OptimizerParams params;
+    private GoogleOrToolsOptimizer google;
+    private HybridOptimizer hybrid;
+    private SolverTuning tuning;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        batches = new InventoryGenerator(SEED).generate(n);
+        target = InventoryGenerator.targetFor(mode);
+        params = InventoryGenerator.paramsFor(mode);
+
+        OptimizerMetrics metrics = new OptimizerMetrics(new SimpleMeterRegistry());
+        SolverTracer tracer = new SolverTracer(false);
+        NativeSolverLoader nativeLoader = new NativeSolverLoader();
+        nativeLoader.ensureLoaded();
+        tuning = new SolverTuning("tuned".equals(scip)
+                ? System.getProperty("blending.solver.profile", ScipTuner.DEFAULT_OUTPUT) : "", formulation);
+        google = new GoogleOrToolsOptimizer(nativeLoader, metrics, tracer, tuning);
+        hybrid = new HybridOptimizer(nativeLoader, metrics, tracer, tuning);
+
+        if ("HYBRID".equals(algorithm)) {
+            batches = HybridOptimizer.filterUsable(batches);
+        }
+        columns = BatchColumns.of(batches);
+    }
+
+    @Benchmark
+    public BlendingModel buildModel() {
+        return build(newSolver());
+    }
+
+    @Benchmark
+    public MPSolver.ResultStatus solve(PreparedModel prepared) {
+        return prepared.solver.solve();
+    }
+
+    @Benchmark
+    public BlendingResult optimize() {
+        BlendingOptimizer optimizer = "HYBRID".equals(algorithm) ? hybrid : google;
+        return optimizer.optimize(batches, target, params);
+    }
+
+    private MPSolver newSolver() {
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        SolverTuning.applyTimeLimit(solver, params);
+        tuning.apply(solver, batches.size());
+        return solver;
+    }
+
+    private BlendingModel build(MPSolver solver) {
+        return "HYBRID".equals(algorithm)
+                ? hybrid.buildModel(solver, columns, target, params)
+                : google.buildModel(solver, columns, target, params);
+    }
+
+    /**
+     * A freshly built model per solve() invocation, so only the native solve is timed.
+     */
+    @State(Scope.Thread)
+    public static class PreparedModel {
+        MPSolver solver;
+
+        @Setup(Level.Invocation)
+        public void prepare(OptimizerBenchmark bench) {
+            solver = bench.newSolver();
+            bench.build(solver);
+        }
+    }
+}
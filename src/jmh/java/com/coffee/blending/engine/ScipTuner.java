@@ -0,0 +1,373 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.bench.InventoryGenerator;
+import com.coffee.blending.capture.CaptureFile;
+import com.coffee.blending.capture.CaptureRecord;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.metrics.OptimizerMetrics;
+import com.coffee.blending.tracing.SolverTracer;
+import com.coffee.blending.web.BlendingRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.ortools.linearsolver.MPSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offline SCIP parameter search. Solves a fixed corpus (generated inventories, plus an
+ * optional request capture) under candidate settings and writes a per-size-bucket
+ * {@link SolverProfile} for {@link SolverTuning} to load at runtime.
+ *
+ * <pre>
+ * ./gradlew tuneScip
+ * ./gradlew tuneScip -PtuneArgs="--sizes 50,500,5000 --instances 6 --repeats 5 --capture capture/requests.ndjson"
+ * </pre>
+ *
+ * The search is coordinate descent over a small set of SCIP knobs, starting from the
+ * defaults. A change is kept only if it cuts the bucket's summed median solve time by
+ * at least {@link #MIN_GAIN} and every instance still ends with the baseline status and
+ * objective, so a profile never trades solution quality for speed. Seeds are fixed;
+ * reruns on the same machine give the same corpus and, timing noise aside, the same profile.
+ */
+public final class ScipTuner {
+
+    public static final String DEFAULT_OUTPUT = "build/tuning/scip-profile.json";
+
+    private static final double MIN_GAIN = 0.03;
+    private static final double OBJECTIVE_TOLERANCE = 1e-6;
+
+    // Knobs searched one at a time; values are the non-default settings to try
+    private static final Map<String, List<String>> SPACE = new LinkedHashMap<>();
+    static {
+        SPACE.put("presolving/emphasis", List.of("fast", "aggressive", "off"));
+        SPACE.put("heuristics/emphasis", List.of("fast", "aggressive", "off"));
+        SPACE.put("separating/emphasis", List.of("fast", "off"));
+        SPACE.put("lp/initalgorithm", List.of("d", "p"));
+        SPACE.put("branching/preferbinary", List.of("TRUE"));
+        SPACE.put("conflict/enable", List.of("FALSE"));
+    }
+
+    private static final BlendingTarget.OptimizationMode[] MODES = BlendingTarget.OptimizationMode.values();
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private int[] sizes = {50, 500, 5000};
+    private int instances = 6;
+    private int repeats = 3;
+    private int passes = 2;
+    private long seed = 20240601L;
+    private String capture;
+    private String out = DEFAULT_OUTPUT;
+    private Formulation formulation = Formulation.STANDARD;
+
+    private GoogleOrToolsOptimizer google;
+    private HybridOptimizer hybrid;
+
+    record Instance(String label, BatchColumns batches, BlendingTarget target, OptimizerParams params,
+                    String algorithm) {
+    }
+
+    record Outcome(MPSolver.ResultStatus status, double objective, double millis) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ScipTuner tuner = new ScipTuner();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes" -> tuner.sizes = Arrays.stream(args[i + 1].split(","))
+                        .map(String::trim).mapToInt(Integer::parseInt).sorted().toArray();
+                case "--instances" -> tuner.instances = Integer.parseInt(args[i + 1]);
+                case "--repeats" -> tuner.repeats = Integer.parseInt(args[i + 1]);
+                case "--passes" -> tuner.passes = Integer.parseInt(args[i + 1]);
+                case "--seed" -> tuner.seed = Long.parseLong(args[i + 1]);
+                case "--capture" -> tuner.capture = args[i + 1];
+                case "--out" -> tuner.out = args[i + 1];
+                case "--formulation" -> tuner.formulation = Formulation.valueOf(args[i + 1].toUpperCase());
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        tuner.run();
+    }
+
+    private void run() throws IOException {
+        NativeSolverLoader nativeLoader = new NativeSolverLoader();
+        nativeLoader.ensureLoaded();
+        OptimizerMetrics metrics = new OptimizerMetrics(new SimpleMeterRegistry());
+        SolverTracer tracer = new SolverTracer(false);
+        // Tune against the formulation production will build; parameters are never applied here
+        SolverTuning models = new SolverTuning("", formulation);
+        google = new GoogleOrToolsOptimizer(nativeLoader, metrics, tracer, models);
+        hybrid = new HybridOptimizer(nativeLoader, metrics, tracer, models);
+
+        List<Instance> corpus = generate();
+        if (capture != null) {
+            corpus.addAll(readCapture(Path.of(capture)));
+        }
+
+        int[] bounds = bucketBounds();
+        List<List<Instance>> grouped = new ArrayList<>();
+        for (int i = 0; i < bounds.length; i++) {
+            grouped.add(new ArrayList<>());
+        }
+        for (Instance inst : corpus) {
+            int b = 0;
+            while (inst.batches().size() > bounds[b]) {
+                b++;
+            }
+            grouped.get(b).add(inst);
+        }
+
+        List<SolverProfile.Bucket> buckets = new ArrayList<>();
+        for (int b = 0; b < bounds.length; b++) {
+            if (grouped.get(b).isEmpty()) {
+                continue;
+            }
+            System.out.printf("%nBucket <= %s batches: %d instances%n",
+                    bounds[b] == Integer.MAX_VALUE ? "inf" : bounds[b], grouped.get(b).size());
+            buckets.add(tune(bounds[b], grouped.get(b)));
+        }
+
+        SolverProfile profile = SolverProfile.builder()
+                .solver("SCIP")
+                .generatedAt(Instant.now().toString())
+                .seed(seed)
+                .buckets(buckets)
+                .build();
+        Path target = Path.of(out);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        mapper.writeValue(target.toFile(), profile);
+
+        System.out.printf("%nProfile written to %s%n", target);
+        for (SolverProfile.Bucket b : buckets) {
+            System.out.printf("  <= %-10s %8.1f ms -> %8.1f ms  %s%n",
+                    b.getMaxBatches() == Integer.MAX_VALUE ? "inf" : b.getMaxBatches(),
+                    b.getBaselineMs(), b.getTunedMs(),
+                    b.getParameters().isEmpty() ? "(defaults)" : b.getParameters());
+        }
+    }
+
+    private SolverProfile.Bucket tune(int maxBatches, List<Instance> bucket) {
+        Map<String, String> current = new LinkedHashMap<>();
+        Outcome[] reference = measure(bucket, current);
+        double best = total(reference);
+        System.out.printf("  defaults: %.1f ms%n", best);
+
+        for (int pass = 0; pass < passes; pass++) {
+            boolean improved = false;
+            for (Map.Entry<String, List<String>> knob : SPACE.entrySet()) {
+                List<String> options = new ArrayList<>(knob.getValue());
+                if (current.containsKey(knob.getKey())) {
+                    options.remove(current.get(knob.getKey()));
+                    options.add(null); // back to the SCIP default
+                }
+                for (String value : options) {
+                    Map<String, String> candidate = new LinkedHashMap<>(current);
+                    if (value == null) {
+                        candidate.remove(knob.getKey());
+                    } else {
+                        candidate.put(knob.getKey(), value);
+                    }
+                    Outcome[] outcomes = measure(bucket, candidate);
+                    String label = knob.getKey() + "=" + (value == null ? "default" : value);
+                    if (outcomes == null) {
+                        System.out.printf("  %-32s rejected by SCIP%n", label);
+                        continue;
+                    }
+                    String mismatch = mismatch(bucket, reference, outcomes);
+                    if (mismatch != null) {
+                        System.out.printf("  %-32s changes the result (%s)%n", label, mismatch);
+                        continue;
+                    }
+                    double t = total(outcomes);
+                    boolean accept = t < best * (1 - MIN_GAIN);
+                    System.out.printf("  %-32s %.1f ms%s%n", label, t, accept ? "  *" : "");
+                    if (accept) {
+                        best = t;
+                        current = candidate;
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+
+        // Re-measure both ends so the reported gain is not the lucky sample that won the search
+        double baselineMs = total(measure(bucket, Map.of()));
+        Outcome[] tuned = measure(bucket, current);
+        double tunedMs = tuned == null ? baselineMs : total(tuned);
+        if (current.isEmpty() || tunedMs >= baselineMs) {
+            current = new LinkedHashMap<>();
+            tunedMs = baselineMs;
+        }
+
+        return SolverProfile.Bucket.builder()
+                .maxBatches(maxBatches)
+                .parameters(current)
+                .instances(bucket.size())
+                .baselineMs(baselineMs)
+                .tunedMs(tunedMs)
+                .build();
+    }
+
+    /**
+     * Median solve time per instance under the given settings, or null if SCIP rejects them.
+     * Status and objective are those of the weakest repeat: a time-limited solve can stop at
+     * a different incumbent every time.
+     */
+    private Outcome[] measure(List<Instance> bucket, Map<String, String> parameters) {
+        String settings = SolverTuning.toSettings(parameters);
+        Outcome[] outcomes = new Outcome[bucket.size()];
+        for (int i = 0; i < bucket.size(); i++) {
+            Instance inst = bucket.get(i);
+            double[] times = new double[repeats];
+            MPSolver.ResultStatus status = null;
+            double objective = Double.NEGATIVE_INFINITY;
+            for (int r = 0; r < repeats; r++) {
+                MPSolver solver = MPSolver.createSolver("SCIP");
+                try {
+                    SolverTuning.applyTimeLimit(solver, inst.params());
+                    if (!settings.isEmpty() && !solver.setSolverSpecificParametersAsString(settings)) {
+                        return null;
+                    }
+                    BlendingModel model = "HYBRID".equals(inst.algorithm())
+                            ? hybrid.buildModel(solver, inst.batches(), inst.target(), inst.params())
+                            : google.buildModel(solver, inst.batches(), inst.target(), inst.params());
+                    long start = System.nanoTime();
+                    MPSolver.ResultStatus repeat = solver.solve();
+                    times[r] = (System.nanoTime() - start) / 1e6;
+                    status = weaker(status, repeat);
+                    if (repeat == MPSolver.ResultStatus.OPTIMAL || repeat == MPSolver.ResultStatus.FEASIBLE) {
+                        objective = Math.max(objective, model.objective.value());
+                    }
+                } finally {
+                    solver.delete();
+                }
+            }
+            Arrays.sort(times);
+            outcomes[i] = new Outcome(status, objective, times[times.length / 2]);
+        }
+        return outcomes;
+    }
+
+    private static MPSolver.ResultStatus weaker(MPSolver.ResultStatus a, MPSolver.ResultStatus b) {
+        if (a == null || a == b || a == MPSolver.ResultStatus.OPTIMAL) {
+            return b;
+        }
+        if (b == MPSolver.ResultStatus.OPTIMAL || b == MPSolver.ResultStatus.FEASIBLE) {
+            return a;
+        }
+        return a == MPSolver.ResultStatus.FEASIBLE ? b : a;
+    }
+
+    /**
+     * Returns why a candidate's results differ from the defaults, or null if they match.
+     * Proven optima must stay optimal with the same objective. Where the defaults hit the time
+     * limit, every repeat of the candidate must find a solution, and its worst incumbent may not
+     * be worse than the worst one of the defaults. Production solves run under the same limit
+     * (SolverTuning.applyTimeLimit), so this is the answer users would get.
+     */
+    private static String mismatch(List<Instance> bucket, Outcome[] reference, Outcome[] candidate) {
+        for (int i = 0; i < reference.length; i++) {
+            Outcome ref = reference[i];
+            Outcome got = candidate[i];
+            double slack = OBJECTIVE_TOLERANCE * Math.max(1.0, Math.abs(ref.objective()));
+            boolean ok = switch (ref.status()) {
+                case OPTIMAL -> got.status() == MPSolver.ResultStatus.OPTIMAL
+                        && Math.abs(got.objective() - ref.objective()) <= slack;
+                case FEASIBLE -> (got.status() == MPSolver.ResultStatus.OPTIMAL
+                        || got.status() == MPSolver.ResultStatus.FEASIBLE)
+                        && got.objective() <= ref.objective() + slack;
+                default -> got.status() == ref.status();
+            };
+            if (!ok) {
+                return bucket.get(i).label() + " " + ref.status() + "/" + ref.objective()
+                        + " -> " + got.status() + "/" + got.objective();
+            }
+        }
+        return null;
+    }
+
+    private static double total(Outcome[] outcomes) {
+        double sum = 0;
+        for (Outcome o : outcomes) {
+            sum += o.millis();
+        }
+        return sum;
+    }
+
+    /**
+     * Bucket upper bounds halfway (geometrically) between the tuning sizes; the last is open.
+     */
+    private int[] bucketBounds() {
+        int[] bounds = new int[sizes.length];
+        for (int i = 0; i < sizes.length - 1; i++) {
+            bounds[i] = (int) Math.round(Math.sqrt((double) sizes[i] * sizes[i + 1]));
+        }
+        bounds[sizes.length - 1] = Integer.MAX_VALUE;
+        return bounds;
+    }
+
+    /**
+     * Every size gets the same mix of market profiles and both engines' formulations.
+     */
+    private List<Instance> generate() {
+        List<Instance> corpus = new ArrayList<>();
+        for (int size : sizes) {
+            for (int k = 0; k < instances; k++) {
+                BlendingTarget.OptimizationMode mode = MODES[k % MODES.length];
+                String algorithm = k % 2 == 0 ? "DEFAULT" : "HYBRID";
+                List<CoffeeBatch> batches = new InventoryGenerator(seed + 1000L * size + k).generate(size);
+                corpus.add(instance("gen-" + size + "-" + k, batches, InventoryGenerator.targetFor(mode),
+                        InventoryGenerator.paramsFor(mode), algorithm));
+            }
+        }
+        return corpus;
+    }
+
+    private List<Instance> readCapture(Path path) throws IOException {
+        List<Instance> corpus = new ArrayList<>();
+        int n = 0;
+        for (CaptureRecord record : CaptureFile.read(path)) {
+            n++;
+            BlendingRequest request = record.getRequest();
+            // Records whose inventory line is missing have nothing to solve offline
+            if (request == null || request.getBatches() == null || request.getBatches().isEmpty()
+                    || request.getTarget() == null) {
+                continue;
+            }
+            OptimizerParams params = request.getParams() != null ? request.getParams() : OptimizerParams.defaults();
+            String algorithm = "HYBRID".equalsIgnoreCase(request.getAlgorithm()) ? "HYBRID" : "DEFAULT";
+            corpus.add(instance("capture-" + n, request.getBatches(), request.getTarget(), params, algorithm));
+        }
+        System.out.printf("Capture %s: %d instances%n", path, corpus.size());
+        return corpus;
+    }
+
+    private static Instance instance(String label, List<CoffeeBatch> batches, BlendingTarget target,
+                                     OptimizerParams params, String algorithm) {
+        if ("HYBRID".equals(algorithm)) {
+            batches = HybridOptimizer.filterUsable(batches);
+            params = HybridOptimizer.resolveProfile(params, target);
+        }
+        return new Instance(label, BatchColumns.of(batches), target, params, algorithm);
+    }
+}
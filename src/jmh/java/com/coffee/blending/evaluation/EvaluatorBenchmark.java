@@ -0,0 +1,91 @@
+package com.coffee.blending.evaluation;
+
+import com.coffee.blending.bench.InventoryGenerator;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendEvaluation;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One evaluate call over slider positions of a single recipe: {@code lots} lots of the
+ * inventory, with ratios moved around at random (as when a user drags the sliders).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    private static final long SEED = 20240601L;
+
+    @Param({"500", "50000"})
+    public int n;
+
+    @Param({"1", "100", "1000"})
+    public int candidates;
+
+    @Param({"4", "8"})
+    public int lots;
+
+    private BatchColumns columns;
+    private BlendingTarget target;
+    private List<Map<String, Double>> compositions;
+    private final BlendEvaluator evaluator = new BlendEvaluator();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<CoffeeBatch> batches = new InventoryGenerator(SEED).generate(n).stream()
+                .filter(b -> b.getAvailableStock() > BatchColumns.MIN_USABLE_STOCK)
+                .toList();
+        columns = BatchColumns.of(batches);
+        target = InventoryGenerator.targetFor(BlendingTarget.OptimizationMode.BALANCED);
+
+        Random random = new Random(SEED);
+        List<String> recipe = new ArrayList<>(lots);
+        for (int i = 0; i < lots; i++) {
+            recipe.add(batches.get(random.nextInt(batches.size())).getId());
+        }
+        compositions = new ArrayList<>(candidates);
+        for (int c = 0; c < candidates; c++) {
+            double[] weights = new double[lots];
+            double sum = 0;
+            for (int i = 0; i < lots; i++) {
+                weights[i] = 0.05 + random.nextDouble();
+                sum += weights[i];
+            }
+            Map<String, Double> composition = new HashMap<>();
+            for (int i = 0; i < lots; i++) {
+                composition.merge(recipe.get(i), weights[i] / sum, Double::sum);
+            }
+            compositions.add(composition);
+        }
+        // Build the id index outside the measurement, as the cached inventory columns do
+        columns.index();
+    }
+
+    @Benchmark
+    public BlendEvaluation evaluate() {
+        return evaluator.evaluate(compositions, columns, target);
+    }
+}
@@ -7,12 +7,15 @@ import com.coffee.blending.domain.OptimizerParams;
 import com.coffee.blending.service.BlendingService;
 import com.coffee.blending.engine.GoogleOrToolsOptimizer;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
 import java.util.List;
 
+// Disabled in the prod profile (blending.demo.enabled=false)
 @Component
+@ConditionalOnProperty(name = "blending.demo.enabled", havingValue = "true", matchIfMissing = true)
 public class DemoRunner implements CommandLineRunner {
 
     private final BlendingService service;
@@ -0,0 +1,66 @@
+package com.coffee.blending.capture;
+
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.web.BlendingRequest;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a {@link RequestRecorder} capture for the offline tools.
+ */
+public final class CaptureFile {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private CaptureFile() {
+    }
+
+    /**
+     * The calls in file order. Each request gets the batches of its inventory line and
+     * {@code useInventory = false}, so it replays without the snapshot it originally ran
+     * against. Records whose inventory line is missing keep {@code batches == null}.
+     */
+    public static List<CaptureRecord> read(Path path) throws IOException {
+        List<CaptureRecord> records = new ArrayList<>();
+        Map<String, List<CoffeeBatch>> inventories = new HashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = MAPPER.readTree(line);
+                if (!node.has("request")) {
+                    CapturedInventory inventory = MAPPER.treeToValue(node, CapturedInventory.class);
+                    if (inventory.getId() != null && inventory.getBatches() != null) {
+                        inventories.put(inventory.getId(), inventory.getBatches().toBatches());
+                    }
+                    continue;
+                }
+                CaptureRecord record = MAPPER.treeToValue(node, CaptureRecord.class);
+                BlendingRequest request = record.getRequest();
+                if (request != null && request.getBatches() == null && record.getInventory() != null) {
+                    List<CoffeeBatch> batches = inventories.get(record.getInventory());
+                    if (batches != null) {
+                        request.setBatches(batches);
+                        request.setUseInventory(false);
+                    }
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,23 @@
+package com.coffee.blending.capture;
+
+import com.coffee.blending.web.BlendingRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One captured optimize call: a single NDJSON line in the capture file.
+ * The batches are not repeated here; {@code inventory} names the {@link CapturedInventory}
+ * line that holds the lots the call was solved against.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaptureRecord {
+    private long timestamp;    // epoch ms when the request finished
+    private double durationMs; // server-side time of the optimize call
+    private String tenant;
+    private String inventory;
+    private BlendingRequest request; // without batches
+    private CapturedResult result;
+}
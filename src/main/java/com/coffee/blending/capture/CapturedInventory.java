@@ -0,0 +1,18 @@
+package com.coffee.blending.capture;
+
+import com.coffee.blending.web.ColumnarBatches;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The lots one or more captured calls were solved against, written once per distinct
+ * content. {@code id} is a hash of the columns.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapturedInventory {
+    private String id;
+    private ColumnarBatches batches;
+}
@@ -0,0 +1,25 @@
+package com.coffee.blending.capture;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * The part of a result that {@link ReplayDriver} compares against.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapturedResult {
+    private boolean feasible;
+    private String status;
+    private double objectiveValue;
+    private Map<String, Double> composition;
+
+    public static CapturedResult of(BlendingResult r) {
+        return new CapturedResult(r.isFeasible(), r.getStatus(), r.getObjectiveValue(), r.getComposition());
+    }
+}
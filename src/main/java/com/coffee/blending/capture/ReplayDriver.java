@@ -0,0 +1,197 @@
+package com.coffee.blending.capture;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.tenant.TenantScheduler;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays a {@link RequestRecorder} capture back against a running instance and reports
+ * throughput, latency percentiles and result differences.
+ *
+ * <pre>
+ * ./gradlew replay -PreplayArgs="--file capture/requests.ndjson --concurrency 8"
+ * ./gradlew replay -PreplayArgs="--file capture/requests.ndjson --rate 50 --repeat 3"
+ * </pre>
+ *
+ * With --rate (requests/s) the load is open-loop and latency is measured from the
+ * scheduled send time, so queueing delay is not hidden (coordinated omission).
+ * Without it, --concurrency workers send back-to-back.
+ *
+ * Every call is sent with the batches it was captured against and under its tenant,
+ * so calls that used the server-side inventory replay without that snapshot.
+ */
+public final class ReplayDriver {
+
+    private static final double RATIO_TOLERANCE = 1e-4;
+    private static final double OBJECTIVE_TOLERANCE = 1e-6;
+    private static final int MAX_DIFFS_SHOWN = 10;
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String file = "capture/requests.ndjson";
+    private String url = "http://localhost:8080/api/v1/optimize";
+    private double rate = 0;
+    private int concurrency = 4;
+    private int repeat = 1;
+
+    public static void main(String[] args) throws Exception {
+        ReplayDriver driver = new ReplayDriver();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--file" -> driver.file = args[i + 1];
+                case "--url" -> driver.url = args[i + 1];
+                case "--rate" -> driver.rate = Double.parseDouble(args[i + 1]);
+                case "--concurrency" -> driver.concurrency = Integer.parseInt(args[i + 1]);
+                case "--repeat" -> driver.repeat = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        driver.run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        List<CaptureRecord> records = new ArrayList<>();
+        int skipped = 0;
+        for (CaptureRecord record : CaptureFile.read(Path.of(file))) {
+            if (record.getRequest() != null && record.getRequest().getBatches() != null) {
+                records.add(record);
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            System.out.printf("Skipped %d records whose inventory is not in the capture%n", skipped);
+        }
+        if (records.isEmpty()) {
+            System.out.println("Capture is empty: " + file);
+            return;
+        }
+
+        int total = records.size() * repeat;
+        long[] latencies = new long[total];
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger diffCount = new AtomicInteger();
+        Queue<String> diffs = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        long intervalNanos = rate > 0 ? (long) (1e9 / rate) : 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < total; i++) {
+            CaptureRecord record = records.get(i % records.size());
+            long scheduled = start + i * intervalNanos;
+            if (intervalNanos > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            int slot = i;
+            pool.execute(() -> {
+                long sent = System.nanoTime();
+                try {
+                    BlendingResult replayed = send(record);
+                    String diff = diff(record.getResult(), replayed);
+                    if (diff != null) {
+                        diffCount.incrementAndGet();
+                        if (diffs.size() < MAX_DIFFS_SHOWN) {
+                            diffs.add("#" + slot + ": " + diff);
+                        }
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+                latencies[slot] = System.nanoTime() - (intervalNanos > 0 ? scheduled : sent);
+            });
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        double elapsedSec = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        System.out.printf("Replayed %d requests (%d recorded x %d) against %s%n", total, records.size(), repeat, url);
+        System.out.printf("Mode:       %s%n", rate > 0 ? "open-loop @ " + rate + " req/s" : "closed-loop x " + concurrency);
+        System.out.printf("Throughput: %.1f req/s%n", total / elapsedSec);
+        System.out.printf("Latency:    p50 %.2f ms | p99 %.2f ms | p999 %.2f ms | max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies[total - 1] / 1e6);
+        System.out.printf("Errors:     %d%n", errors.get());
+        System.out.printf("Diffs:      %d%n", diffCount.get());
+        diffs.forEach(d -> System.out.println("  " + d));
+    }
+
+    private BlendingResult send(CaptureRecord record) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(record.getRequest())));
+        if (record.getTenant() != null && !TenantScheduler.DEFAULT_TENANT.equals(record.getTenant())) {
+            builder.header(TenantScheduler.HEADER, record.getTenant());
+        }
+        HttpRequest request = builder.build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        return mapper.readValue(response.body(), BlendingResult.class);
+    }
+
+    /**
+     * Returns a one-line description of how the replayed result differs, or null if it matches.
+     */
+    static String diff(CapturedResult expected, BlendingResult actual) {
+        if (expected == null) {
+            return null;
+        }
+        if (expected.isFeasible() != actual.isFeasible() || !String.valueOf(expected.getStatus()).equals(actual.getStatus())) {
+            return "status " + expected.getStatus() + " -> " + actual.getStatus();
+        }
+        double scale = Math.max(1.0, Math.abs(expected.getObjectiveValue()));
+        if (Math.abs(expected.getObjectiveValue() - actual.getObjectiveValue()) / scale > OBJECTIVE_TOLERANCE) {
+            return String.format("objective %.6f -> %.6f", expected.getObjectiveValue(), actual.getObjectiveValue());
+        }
+        Map<String, Double> a = expected.getComposition() == null ? Map.of() : expected.getComposition();
+        Map<String, Double> b = actual.getComposition() == null ? Map.of() : actual.getComposition();
+        Set<String> ids = new HashSet<>(a.keySet());
+        ids.addAll(b.keySet());
+        for (String id : ids) {
+            double ra = a.getOrDefault(id, 0.0);
+            double rb = b.getOrDefault(id, 0.0);
+            if (Math.abs(ra - rb) > RATIO_TOLERANCE) {
+                return String.format("composition %s %.4f -> %.4f", id, ra, rb);
+            }
+        }
+        return null;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1e6;
+    }
+}
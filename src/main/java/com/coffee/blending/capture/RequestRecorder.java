@@ -0,0 +1,159 @@
+package com.coffee.blending.capture;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.web.BlendingRequest;
+import com.coffee.blending.web.ColumnarBatches;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in recorder that appends sampled optimize requests, with timings and results,
+ * to a local NDJSON file for {@link ReplayDriver}.
+ * Writes happen on a single background thread; when it falls behind, samples are
+ * dropped rather than slowing requests down.
+ *
+ * The lots a call was solved against go into a separate {@link CapturedInventory} line,
+ * written once per distinct content and referenced by hash, so a snapshot shared by many
+ * calls is stored once. Of the result only what replay compares is kept.
+ */
+@Slf4j
+@Component
+public class RequestRecorder {
+
+    private static final int MAX_PENDING = 10_000;
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final ObjectMapper mapper;
+    private final ThreadPoolExecutor writer;
+    private BufferedWriter out;
+
+    // Writer thread only: inventories already in the file, and the last one hashed
+    private final Set<String> written = new HashSet<>();
+    private WeakReference<BatchColumns> lastBatches = new WeakReference<>(null);
+    private String lastInventory;
+
+    public RequestRecorder(ObjectMapper objectMapper,
+                           @Value("${blending.capture.enabled:false}") boolean enabled,
+                           @Value("${blending.capture.sample-rate:1.0}") double sampleRate,
+                           @Value("${blending.capture.file:capture/requests.ndjson}") String file) {
+        this.sampleRate = sampleRate;
+        this.mapper = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING), r -> {
+                    Thread t = new Thread(r, "request-recorder");
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+
+        boolean opened = false;
+        if (enabled) {
+            try {
+                Path path = Path.of(file);
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                opened = true;
+                log.info("Capturing {}% of optimize requests to {}", sampleRate * 100, path.toAbsolutePath());
+            } catch (IOException e) {
+                log.error("Request capture disabled, cannot open {}", file, e);
+            }
+        }
+        this.enabled = opened;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * {@code batches} are the lots the call was solved against (the live inventory for
+     * useInventory calls); the batches inside {@code request} are not written. The columns
+     * are only read on the writer thread, so callers must not modify them afterwards.
+     */
+    public void record(String tenant, BlendingRequest request, BatchColumns batches, BlendingResult result,
+                       long durationNanos) {
+        if (!enabled || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        BlendingRequest withoutBatches = new BlendingRequest(null, request.getTarget(), request.getParams(),
+                request.getAlgorithm(), request.isSensitivity(), request.isUseInventory(), request.getRobustness(),
+                request.getAlternatives());
+        CaptureRecord record = new CaptureRecord(System.currentTimeMillis(), durationNanos / 1e6, tenant, null,
+                withoutBatches, CapturedResult.of(result));
+        writer.execute(() -> append(record, batches));
+    }
+
+    private void append(CaptureRecord record, BatchColumns batches) {
+        try {
+            if (batches != null) {
+                record.setInventory(inventoryLine(batches));
+            }
+            out.write(mapper.writeValueAsString(record));
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Failed to write capture record", e);
+        }
+    }
+
+    /**
+     * Hash of the columns, writing them first if the file does not have them yet. The same
+     * columns instance (one inventory version) is hashed only once.
+     */
+    private String inventoryLine(BatchColumns batches) throws IOException {
+        if (lastBatches.get() == batches) {
+            return lastInventory;
+        }
+        ColumnarBatches columns = ColumnarBatches.from(batches);
+        String id = hash(mapper.writeValueAsBytes(columns));
+        if (written.add(id)) {
+            out.write(mapper.writeValueAsString(new CapturedInventory(id, columns)));
+            out.newLine();
+        }
+        lastBatches = new WeakReference<>(batches);
+        lastInventory = id;
+        return id;
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        if (out != null) {
+            out.close();
+        }
+    }
+}
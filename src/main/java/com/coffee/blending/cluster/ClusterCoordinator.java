@@ -0,0 +1,437 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coordinator mode: fans a bulk run out to worker instances of this app over HTTP/JSON.
+ *
+ * Tasks (targets against one shared inventory, plus independent subproblems that carry
+ * their own lots) are cut into chunks and dealt round-robin into one deque per worker.
+ * Each worker gets as many slot threads as it has cores; a slot takes chunks from the
+ * front of its own deque and, when that is empty, steals from the back of the longest
+ * other deque, so fast workers drain slow ones.
+ *
+ * A failed chunk call goes back on the deque and its items are retried up to
+ * {@code max-attempts}; a worker with repeated consecutive failures is marked down and
+ * its queue is stolen by the rest. The run deadline travels with every chunk as a
+ * relative budget; anything unfinished at the deadline is reported as DEADLINE_EXCEEDED.
+ *
+ * Try it on one machine: start workers with
+ * {@code --server.port=8081 --blending.cluster.worker.enabled=true}, and a coordinator with
+ * {@code --blending.cluster.workers=http://localhost:8081,http://localhost:8082}.
+ */
+@Slf4j
+@Service
+public class ClusterCoordinator {
+
+    private static final int MAX_CONSECUTIVE_FAILURES = 3;
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+    private static final long NETWORK_MARGIN_MS = 250;
+    private static final Duration HTTP_GRACE = Duration.ofSeconds(5);
+
+    private final List<String> workerUrls;
+    private final WorkerService workerService;
+    private final int slotsPerWorker;
+    private final int localSlots;
+    private final int chunkSize;
+    private final int maxAttempts;
+    private final long defaultDeadlineMs;
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final ExecutorService slotThreads = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "cluster-slot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ClusterCoordinator(ObjectMapper mapper,
+                              WorkerService workerService,
+                              @Value("${blending.cluster.workers:}") List<String> workerUrls,
+                              @Value("${blending.cluster.slots-per-worker:0}") int slotsPerWorker,
+                              @Value("${blending.cluster.local-slots:0}") int localSlots,
+                              @Value("${blending.cluster.chunk-size:2}") int chunkSize,
+                              @Value("${blending.cluster.max-attempts:3}") int maxAttempts,
+                              @Value("${blending.cluster.default-deadline-ms:600000}") long defaultDeadlineMs) {
+        this.mapper = mapper;
+        this.workerService = workerService;
+        this.workerUrls = workerUrls.stream().map(String::trim).filter(s -> !s.isEmpty()).toList();
+        this.slotsPerWorker = slotsPerWorker;
+        this.localSlots = localSlots;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.defaultDeadlineMs = defaultDeadlineMs;
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    /**
+     * Runs the targets and subproblems on behalf of the tenant; workers solve them under
+     * that tenant's quotas and store namespace.
+     */
+    public ClusterRunResult run(String tenant, List<CoffeeBatch> batches, List<BlendingTarget> targets,
+                                List<ClusterSubproblem> subproblems, OptimizerParams params, String algorithm,
+                                long deadlineMs) {
+        List<BlendingTarget> shared = targets == null ? List.of() : targets;
+        List<ClusterSubproblem> parts = subproblems == null ? List.of() : subproblems;
+        if (shared.isEmpty() && parts.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to solve: no targets or subproblems");
+        }
+        if (!shared.isEmpty() && (batches == null || batches.isEmpty())) {
+            throw new IllegalArgumentException("Batch list cannot be empty");
+        }
+
+        long start = System.nanoTime();
+        long budget = deadlineMs > 0 ? deadlineMs : defaultDeadlineMs;
+        Run run = new Run(UUID.randomUUID().toString(), tenant, batches, shared, parts,
+                params == null ? OptimizerParams.defaults() : params, algorithm, start + budget * 1_000_000L);
+
+        List<Worker> workers = connect();
+        if (workers.isEmpty()) {
+            throw new IllegalStateException("No cluster workers reachable");
+        }
+        deal(run, workers);
+
+        List<Future<?>> slots = new ArrayList<>();
+        for (Worker w : workers) {
+            for (int s = 0; s < w.slots; s++) {
+                slots.add(slotThreads.submit(() -> runSlot(run, w, workers)));
+            }
+        }
+        for (Future<?> slot : slots) {
+            try {
+                slot.get();
+            } catch (Exception e) {
+                log.warn("Cluster slot ended abnormally: {}", e.getMessage());
+            }
+        }
+
+        boolean expired = System.nanoTime() >= run.deadline;
+        for (int i = 0; i < run.size(); i++) {
+            run.complete(i, expired ? deadlineExceeded() : failed("no workers left"));
+        }
+        for (Worker w : workers) {
+            if (w.staged) {
+                w.client.release(run.key);
+            }
+        }
+        return aggregate(run, workers, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        slotThreads.shutdownNow();
+    }
+
+    static BlendingResult deadlineExceeded() {
+        return BlendingResult.builder().feasible(false).status("DEADLINE_EXCEEDED").build();
+    }
+
+    private static BlendingResult failed(String reason) {
+        return BlendingResult.builder().feasible(false).status("FAILED: " + reason).build();
+    }
+
+    private List<Worker> connect() {
+        List<Worker> workers = new ArrayList<>();
+        for (String url : workerUrls) {
+            WorkerClient client = new HttpWorkerClient(url, http, mapper);
+            try {
+                int slots = slotsPerWorker > 0 ? slotsPerWorker : Math.max(1, client.info().getSlots());
+                workers.add(new Worker(client, slots));
+            } catch (IOException e) {
+                log.warn("Cluster worker {} unreachable, skipping: {}", url, e.getMessage());
+            }
+        }
+        if (localSlots > 0) {
+            workers.add(new Worker(new LocalWorkerClient(workerService, localSlots), localSlots));
+        }
+        return workers;
+    }
+
+    /**
+     * Cut tasks into chunks (shared-inventory targets by chunk size, subproblems alone)
+     * and deal them round-robin, weighted by slots.
+     */
+    private void deal(Run run, List<Worker> workers) {
+        List<int[]> chunks = new ArrayList<>();
+        int sharedCount = run.targets.size();
+        for (int i = 0; i < sharedCount; i += chunkSize) {
+            int[] chunk = new int[Math.min(chunkSize, sharedCount - i)];
+            for (int k = 0; k < chunk.length; k++) {
+                chunk[k] = i + k;
+            }
+            chunks.add(chunk);
+        }
+        for (int i = 0; i < run.subproblems.size(); i++) {
+            chunks.add(new int[]{sharedCount + i});
+        }
+
+        List<Worker> ring = new ArrayList<>();
+        for (Worker w : workers) {
+            for (int s = 0; s < w.slots; s++) {
+                ring.add(w);
+            }
+        }
+        for (int c = 0; c < chunks.size(); c++) {
+            ring.get(c % ring.size()).queue.addLast(chunks.get(c));
+        }
+    }
+
+    private void runSlot(Run run, Worker self, List<Worker> workers) {
+        while (run.remaining.get() > 0 && !self.down && System.nanoTime() < run.deadline) {
+            int[] chunk = self.queue.pollFirst();
+            if (chunk == null) {
+                chunk = steal(self, workers);
+            }
+            if (chunk == null) {
+                // Other slots may still hand chunks back after a failure
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            execute(run, self, chunk);
+        }
+    }
+
+    private int[] steal(Worker self, List<Worker> workers) {
+        Worker victim = null;
+        int longest = 0;
+        for (Worker w : workers) {
+            int size = w.queue.size();
+            if (w != self && size > longest) {
+                victim = w;
+                longest = size;
+            }
+        }
+        int[] chunk = victim == null ? null : victim.queue.pollLast();
+        if (chunk != null) {
+            self.stolen.incrementAndGet();
+        }
+        return chunk;
+    }
+
+    private void execute(Run run, Worker w, int[] chunk) {
+        boolean shared = chunk[0] < run.targets.size();
+        long remainingMs = (run.deadline - System.nanoTime()) / 1_000_000;
+        if (remainingMs <= 0) {
+            w.queue.addFirst(chunk);
+            return;
+        }
+
+        List<WorkerItem> items = new ArrayList<>(chunk.length);
+        for (int index : chunk) {
+            items.add(new WorkerItem(index, run.target(index)));
+        }
+        WorkerRequest request = WorkerRequest.builder()
+                .inventoryKey(shared ? run.key : null)
+                .batches(shared ? null : run.subproblems.get(chunk[0] - run.targets.size()).getBatches())
+                .items(items)
+                .tenant(run.tenant)
+                .params(run.params)
+                .algorithm(run.algorithm)
+                .budgetMs(Math.max(1, remainingMs - NETWORK_MARGIN_MS))
+                .build();
+
+        try {
+            if (shared) {
+                w.ensureStaged(run);
+            }
+            WorkerResponse response = w.client.solve(request, Duration.ofMillis(remainingMs).plus(HTTP_GRACE));
+            w.chunks.incrementAndGet();
+            w.consecutiveFailures.set(0);
+
+            List<Integer> missing = new ArrayList<>();
+            for (int index : chunk) {
+                missing.add(index);
+            }
+            for (WorkerItemResult r : response.getResults()) {
+                if (missing.remove(Integer.valueOf(r.getIndex())) && run.complete(r.getIndex(), r.getResult())) {
+                    w.solved.incrementAndGet();
+                }
+            }
+            if (!missing.isEmpty()) {
+                retry(run, w, missing, "incomplete response");
+            }
+        } catch (UnknownInventoryException e) {
+            // Worker restarted or evicted the inventory: stage again, no attempt spent
+            w.staged = false;
+            w.queue.addFirst(chunk);
+        } catch (IOException | RuntimeException e) {
+            w.failures.incrementAndGet();
+            if (w.consecutiveFailures.incrementAndGet() >= MAX_CONSECUTIVE_FAILURES) {
+                w.down = true;
+                log.warn("Cluster worker {} marked down: {}", w.client.name(), e.getMessage());
+            }
+            List<Integer> all = new ArrayList<>();
+            for (int index : chunk) {
+                all.add(index);
+            }
+            retry(run, w, all, e.getMessage());
+        }
+    }
+
+    private void retry(Run run, Worker w, List<Integer> indices, String reason) {
+        List<Integer> again = new ArrayList<>();
+        for (int index : indices) {
+            if (run.results.get(index) != null) {
+                continue;
+            }
+            if (run.attempts.incrementAndGet(index) >= maxAttempts) {
+                run.complete(index, failed(reason));
+            } else {
+                again.add(index);
+            }
+        }
+        if (!again.isEmpty()) {
+            // Back on this worker's deque; if it is down, the others steal it
+            w.queue.addFirst(again.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private ClusterRunResult aggregate(Run run, List<Worker> workers, long elapsedMs) {
+        List<BlendingResult> results = new ArrayList<>(run.size());
+        int feasible = 0, infeasible = 0, failed = 0, expired = 0;
+        double totalCost = 0;
+        for (int i = 0; i < run.size(); i++) {
+            BlendingResult r = run.results.get(i);
+            results.add(r);
+            String status = String.valueOf(r.getStatus());
+            if (r.isFeasible()) {
+                feasible++;
+                totalCost += r.getPredictedPrice() * run.target(i).getTotalOutputKg();
+            } else if (status.startsWith("FAILED")) {
+                failed++;
+            } else if (status.equals("DEADLINE_EXCEEDED")) {
+                expired++;
+            } else {
+                infeasible++;
+            }
+        }
+
+        Map<String, WorkerStats> stats = new LinkedHashMap<>();
+        for (Worker w : workers) {
+            stats.put(w.client.name(), WorkerStats.builder()
+                    .slots(w.slots)
+                    .solved(w.solved.get())
+                    .chunks(w.chunks.get())
+                    .stolen(w.stolen.get())
+                    .failures(w.failures.get())
+                    .down(w.down)
+                    .build());
+        }
+        log.info("Cluster run {}: {} tasks on {} workers in {} ms ({} feasible, {} failed, {} past deadline)",
+                run.key, run.size(), workers.size(), elapsedMs, feasible, failed, expired);
+
+        ClusterRunSummary summary = ClusterRunSummary.builder()
+                .tasks(run.size())
+                .feasible(feasible)
+                .infeasible(infeasible)
+                .failed(failed)
+                .deadlineExceeded(expired)
+                .totalCostVnd(totalCost)
+                .elapsedMs(elapsedMs)
+                .workers(stats)
+                .build();
+        return new ClusterRunResult(summary, results);
+    }
+
+    private static final class Run {
+        final String key;
+        final String tenant;
+        final List<CoffeeBatch> batches;
+        final List<BlendingTarget> targets;
+        final List<ClusterSubproblem> subproblems;
+        final OptimizerParams params;
+        final String algorithm;
+        final long deadline;
+        final AtomicReferenceArray<BlendingResult> results;
+        final AtomicIntegerArray attempts;
+        final AtomicInteger remaining;
+
+        Run(String key, String tenant, List<CoffeeBatch> batches, List<BlendingTarget> targets,
+            List<ClusterSubproblem> subproblems, OptimizerParams params, String algorithm, long deadline) {
+            this.key = key;
+            this.tenant = tenant;
+            this.batches = batches;
+            this.targets = targets;
+            this.subproblems = subproblems;
+            this.params = params;
+            this.algorithm = algorithm;
+            this.deadline = deadline;
+            int n = targets.size() + subproblems.size();
+            this.results = new AtomicReferenceArray<>(n);
+            this.attempts = new AtomicIntegerArray(n);
+            this.remaining = new AtomicInteger(n);
+        }
+
+        int size() {
+            return results.length();
+        }
+
+        BlendingTarget target(int index) {
+            return index < targets.size() ? targets.get(index) : subproblems.get(index - targets.size()).getTarget();
+        }
+
+        /**
+         * First result for an index wins (a retried chunk may race its slow original).
+         */
+        boolean complete(int index, BlendingResult result) {
+            if (results.compareAndSet(index, null, result)) {
+                remaining.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Worker {
+        final WorkerClient client;
+        final int slots;
+        final Deque<int[]> queue = new ConcurrentLinkedDeque<>();
+        final AtomicInteger solved = new AtomicInteger();
+        final AtomicInteger chunks = new AtomicInteger();
+        final AtomicInteger stolen = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        volatile boolean down;
+        volatile boolean staged;
+
+        Worker(WorkerClient client, int slots) {
+            this.client = client;
+            this.slots = slots;
+        }
+
+        /**
+         * The shared inventory is sent once per worker and run, on first use.
+         */
+        synchronized void ensureStaged(Run run) throws IOException {
+            if (!staged) {
+                client.stage(run.key, run.batches);
+                staged = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterRunResult {
+    private ClusterRunSummary summary;
+    // One per task, in task order: the targets first, then the subproblems
+    private List<BlendingResult> results;
+}
@@ -0,0 +1,23 @@
+package com.coffee.blending.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterRunSummary {
+    private int tasks;
+    private int feasible;
+    private int infeasible;
+    private int failed;            // gave up after retries or no workers left
+    private int deadlineExceeded;
+    private double totalCostVnd;   // sum of predicted price * output kg over feasible recipes
+    private long elapsedMs;
+    private Map<String, WorkerStats> workers;
+}
@@ -0,0 +1,20 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * An independent piece of a decomposed plan: its own lots and target.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterSubproblem {
+    private List<CoffeeBatch> batches;
+    private BlendingTarget target;
+}
@@ -0,0 +1,97 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.CoffeeBatch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Remote worker: another instance of this app with blending.cluster.worker.enabled=true.
+ */
+@Slf4j
+final class HttpWorkerClient implements WorkerClient {
+
+    private static final Duration CONTROL_TIMEOUT = Duration.ofSeconds(5);
+    private static final String PATH = "/api/v1/worker";
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+
+    HttpWorkerClient(String baseUrl, HttpClient http, ObjectMapper mapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.http = http;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public String name() {
+        return baseUrl;
+    }
+
+    @Override
+    public WorkerInfo info() throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATH + "/info"))
+                .timeout(CONTROL_TIMEOUT)
+                .GET()
+                .build();
+        return mapper.readValue(send(request, null), WorkerInfo.class);
+    }
+
+    @Override
+    public void stage(String inventoryKey, List<CoffeeBatch> batches) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATH + "/inventories/" + inventoryKey))
+                .timeout(Duration.ofMinutes(1))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(batches)))
+                .build();
+        send(request, null);
+    }
+
+    @Override
+    public WorkerResponse solve(WorkerRequest body, Duration timeout) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATH + "/solve"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                .build();
+        return mapper.readValue(send(request, body.getInventoryKey()), WorkerResponse.class);
+    }
+
+    @Override
+    public void release(String inventoryKey) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PATH + "/inventories/" + inventoryKey))
+                .timeout(CONTROL_TIMEOUT)
+                .DELETE()
+                .build();
+        try {
+            send(request, null);
+        } catch (IOException e) {
+            log.debug("Release on {} failed: {}", baseUrl, e.getMessage());
+        }
+    }
+
+    private byte[] send(HttpRequest request, String inventoryKey) throws IOException {
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+        if (response.statusCode() == 410 && inventoryKey != null) {
+            throw new UnknownInventoryException(inventoryKey);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException(baseUrl + " returned HTTP " + response.statusCode());
+        }
+        return response.body();
+    }
+}
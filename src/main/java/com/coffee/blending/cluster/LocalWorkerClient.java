@@ -0,0 +1,45 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.CoffeeBatch;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The coordinator's own node as a worker, without HTTP.
+ */
+final class LocalWorkerClient implements WorkerClient {
+
+    private final WorkerService workerService;
+    private final int slots;
+
+    LocalWorkerClient(WorkerService workerService, int slots) {
+        this.workerService = workerService;
+        this.slots = slots;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public WorkerInfo info() {
+        return new WorkerInfo(name(), slots);
+    }
+
+    @Override
+    public void stage(String inventoryKey, List<CoffeeBatch> batches) {
+        workerService.stage(inventoryKey, batches);
+    }
+
+    @Override
+    public WorkerResponse solve(WorkerRequest request, Duration timeout) {
+        return workerService.solve(request);
+    }
+
+    @Override
+    public void release(String inventoryKey) {
+        workerService.release(inventoryKey);
+    }
+}
@@ -0,0 +1,11 @@
+package com.coffee.blending.cluster;
+
+/**
+ * The worker no longer holds the staged inventory (restarted or evicted).
+ * The coordinator re-stages it and retries without counting an attempt.
+ */
+public class UnknownInventoryException extends IllegalStateException {
+    public UnknownInventoryException(String key) {
+        super("Inventory not staged on this worker: " + key);
+    }
+}
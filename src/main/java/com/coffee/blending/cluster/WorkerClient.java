@@ -0,0 +1,23 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.CoffeeBatch;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * How the coordinator talks to one worker, remote (HTTP/JSON) or in-process.
+ */
+interface WorkerClient {
+
+    String name();
+
+    WorkerInfo info() throws IOException;
+
+    void stage(String inventoryKey, List<CoffeeBatch> batches) throws IOException;
+
+    WorkerResponse solve(WorkerRequest request, Duration timeout) throws IOException;
+
+    void release(String inventoryKey);
+}
@@ -0,0 +1,13 @@
+package com.coffee.blending.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerInfo {
+    private String name;
+    private int slots; // concurrent chunks the worker wants (its core count)
+}
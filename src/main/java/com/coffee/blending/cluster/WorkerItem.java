@@ -0,0 +1,14 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.BlendingTarget;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerItem {
+    private int index; // position in the coordinator's run
+    private BlendingTarget target;
+}
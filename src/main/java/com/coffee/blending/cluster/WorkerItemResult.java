@@ -0,0 +1,14 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerItemResult {
+    private int index;
+    private BlendingResult result;
+}
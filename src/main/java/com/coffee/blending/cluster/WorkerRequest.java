@@ -0,0 +1,30 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One chunk of work sent to a worker. Batches come either from an inventory staged
+ * earlier under {@code inventoryKey}, or inline (decomposed-plan subproblems).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerRequest {
+    private String inventoryKey;
+    private List<CoffeeBatch> batches;
+    private List<WorkerItem> items;
+    private String tenant;     // solved under this tenant's quotas (null = default)
+    private OptimizerParams params;
+    private String algorithm;
+
+    // Time left until the run deadline when the chunk was sent (relative, so clock skew doesn't matter)
+    private long budgetMs;
+}
@@ -0,0 +1,15 @@
+package com.coffee.blending.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerResponse {
+    private String worker;
+    private List<WorkerItemResult> results;
+}
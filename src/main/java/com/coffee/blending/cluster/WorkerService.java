@@ -0,0 +1,114 @@
+package com.coffee.blending.cluster;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.service.BlendingService;
+import com.coffee.blending.tenant.TenantQuotaExceededException;
+import com.coffee.blending.tenant.TenantScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Worker side of the cluster protocol: holds inventories staged by coordinators
+ * (small LRU) and solves chunks of targets against them within the sent budget.
+ */
+@Slf4j
+@Service
+public class WorkerService {
+
+    private final BlendingService blendingService;
+    private final TenantScheduler tenantScheduler;
+    private final String name;
+    private final Map<String, List<CoffeeBatch>> staged;
+
+    public WorkerService(BlendingService blendingService,
+                         TenantScheduler tenantScheduler,
+                         @Value("${server.port:8080}") int port,
+                         @Value("${blending.cluster.worker.max-inventories:8}") int maxInventories) {
+        this.blendingService = blendingService;
+        this.tenantScheduler = tenantScheduler;
+        this.name = hostName() + ":" + port;
+        this.staged = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<CoffeeBatch>> eldest) {
+                return size() > maxInventories;
+            }
+        });
+    }
+
+    public WorkerInfo info() {
+        return new WorkerInfo(name, Runtime.getRuntime().availableProcessors());
+    }
+
+    public void stage(String key, List<CoffeeBatch> batches) {
+        if (batches == null || batches.isEmpty()) {
+            throw new IllegalArgumentException("Batch list cannot be empty");
+        }
+        staged.put(key, List.copyOf(batches));
+    }
+
+    public void release(String key) {
+        staged.remove(key);
+    }
+
+    /**
+     * Solves the chunk item by item. Items reached after the budget ran out come back
+     * as DEADLINE_EXCEEDED, and the solver time limit is clamped to what is left. Both
+     * engines pass solverTimeoutSec to SCIP (Hybrid keeps it as a cap on its profile),
+     * so a solve ends near the deadline; Hybrid's relaxation retries each get that limit.
+     */
+    public WorkerResponse solve(WorkerRequest request) {
+        long deadline = System.nanoTime() + request.getBudgetMs() * 1_000_000L;
+        List<CoffeeBatch> batches = request.getBatches();
+        if (batches == null) {
+            batches = staged.get(request.getInventoryKey());
+            if (batches == null) {
+                throw new UnknownInventoryException(request.getInventoryKey());
+            }
+        }
+        String tenant = tenantScheduler.resolve(request.getTenant());
+        OptimizerParams base = request.getParams() == null ? OptimizerParams.defaults() : request.getParams();
+
+        List<WorkerItemResult> results = new ArrayList<>(request.getItems().size());
+        for (WorkerItem item : request.getItems()) {
+            double remainingSec = (deadline - System.nanoTime()) / 1e9;
+            BlendingResult result;
+            if (remainingSec <= 0) {
+                result = ClusterCoordinator.deadlineExceeded();
+            } else {
+                // Clamp only when needed, so the params (and recipe fingerprint) stay as sent
+                OptimizerParams params = base.getSolverTimeoutSec() > 0 && base.getSolverTimeoutSec() <= remainingSec
+                        ? base
+                        : base.toBuilder().solverTimeoutSec(remainingSec).build();
+                try {
+                    result = blendingService.optimizeBlend(tenant, batches, item.getTarget(), params,
+                            request.getAlgorithm(), false);
+                } catch (TenantQuotaExceededException e) {
+                    result = BlendingResult.builder().feasible(false).status("REJECTED: " + e.getMessage()).build();
+                } catch (IllegalArgumentException e) {
+                    result = BlendingResult.builder().feasible(false).status("INVALID: " + e.getMessage()).build();
+                }
+            }
+            results.add(new WorkerItemResult(item.getIndex(), result));
+        }
+        return new WorkerResponse(name, results);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "localhost";
+        }
+    }
+}
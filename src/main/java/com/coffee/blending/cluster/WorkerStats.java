@@ -0,0 +1,19 @@
+package com.coffee.blending.cluster;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerStats {
+    private int slots;
+    private int solved;   // items completed by this worker
+    private int chunks;
+    private int stolen;   // chunks taken from another worker's queue
+    private int failures; // failed chunk calls
+    private boolean down;
+}
@@ -0,0 +1,44 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Asks for the best recipe plus backups with different lots, found in one solver session.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlternativesOptions {
+    public static final int MAX_COUNT = 20;
+
+    private int count;        // recipes wanted, best included (0 = default 3)
+    private int minDiversity; // lots of every earlier recipe each next one must drop (0 = default 1)
+    private long timeBudgetMs; // shared by all solves (0 = solverTimeoutSec of the params, else of the defaults)
+
+    public int effectiveCount() {
+        return count > 0 ? count : 3;
+    }
+
+    public int effectiveMinDiversity() {
+        return minDiversity > 0 ? minDiversity : 1;
+    }
+
+    /**
+     * Wall-clock budget for the whole search. The first solve gets at least one second even if
+     * the budget is smaller; each backup only gets what is left, and none starts once it is spent.
+     */
+    public long budgetMs(OptimizerParams params) {
+        if (timeBudgetMs > 0) {
+            return timeBudgetMs;
+        }
+        // Partial params arrive with solverTimeoutSec = 0
+        double seconds = params.getSolverTimeoutSec() > 0
+                ? params.getSolverTimeoutSec()
+                : OptimizerParams.defaults().getSolverTimeoutSec();
+        return (long) (seconds * 1000);
+    }
+}
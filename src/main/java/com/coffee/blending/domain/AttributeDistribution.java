@@ -0,0 +1,20 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeDistribution {
+    private double target;
+    private double mean;
+    private double stdDev;
+    private double p05;
+    private double p50;
+    private double p95;
+    private double probabilityWithinTolerance; // |predicted - target| <= flavorTolerance
+}
@@ -0,0 +1,210 @@
+package com.coffee.blending.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Inventory stored as primitive columns (one array per attribute) instead of
+ * one {@link CoffeeBatch} object per lot. Growable; once handed to readers an
+ * instance is not modified again (writers {@link #copy()} and {@link #set} the copy).
+ */
+public final class BatchColumns {
+
+    // Lots at or below this stock are unusable and dropped before solving
+    public static final double MIN_USABLE_STOCK = 0.1;
+
+    private String[] id;
+    private String[] name;
+    private double[] price;
+    private double[] acid;
+    private double[] bitter;
+    private double[] sweet;
+    private double[] caffeine;
+    private double[] availableStock;
+    private int[] daysToExpiry;
+    private int size;
+    // id -> position, built on first lookup and dropped by add() and set()
+    private volatile Map<String, Integer> index;
+
+    public BatchColumns(int capacity) {
+        int c = Math.max(capacity, 4);
+        id = new String[c];
+        name = new String[c];
+        price = new double[c];
+        acid = new double[c];
+        bitter = new double[c];
+        sweet = new double[c];
+        caffeine = new double[c];
+        availableStock = new double[c];
+        daysToExpiry = new int[c];
+    }
+
+    public static BatchColumns of(List<CoffeeBatch> batches) {
+        BatchColumns cols = new BatchColumns(batches.size());
+        for (CoffeeBatch b : batches) {
+            cols.add(b);
+        }
+        return cols;
+    }
+
+    public BatchColumns copy() {
+        BatchColumns cols = new BatchColumns(size);
+        System.arraycopy(id, 0, cols.id, 0, size);
+        System.arraycopy(name, 0, cols.name, 0, size);
+        System.arraycopy(price, 0, cols.price, 0, size);
+        System.arraycopy(acid, 0, cols.acid, 0, size);
+        System.arraycopy(bitter, 0, cols.bitter, 0, size);
+        System.arraycopy(sweet, 0, cols.sweet, 0, size);
+        System.arraycopy(caffeine, 0, cols.caffeine, 0, size);
+        System.arraycopy(availableStock, 0, cols.availableStock, 0, size);
+        System.arraycopy(daysToExpiry, 0, cols.daysToExpiry, 0, size);
+        cols.size = size;
+        return cols;
+    }
+
+    /**
+     * The lots for which {@code keep} holds, in order; this instance itself if that is all of them.
+     */
+    public BatchColumns retain(IntPredicate keep) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (keep.test(i)) {
+                kept++;
+            }
+        }
+        if (kept == size) {
+            return this;
+        }
+        BatchColumns cols = new BatchColumns(kept);
+        for (int i = 0; i < size; i++) {
+            if (keep.test(i)) {
+                cols.add(id[i], name[i], price[i], acid[i], bitter[i], sweet[i], caffeine[i], availableStock[i],
+                        daysToExpiry[i]);
+            }
+        }
+        return cols;
+    }
+
+    public void add(CoffeeBatch b) {
+        add(b.getId(), b.getName(), b.getPrice(), b.getAcid(), b.getBitter(), b.getSweet(),
+                b.getCaffeine(), b.getAvailableStock(), b.getDaysToExpiry());
+    }
+
+    /**
+     * Overwrites lot i; only for an instance no reader has seen yet.
+     */
+    public void set(int i, CoffeeBatch b) {
+        id[i] = b.getId();
+        name[i] = b.getName();
+        price[i] = b.getPrice();
+        acid[i] = b.getAcid();
+        bitter[i] = b.getBitter();
+        sweet[i] = b.getSweet();
+        caffeine[i] = b.getCaffeine();
+        availableStock[i] = b.getAvailableStock();
+        daysToExpiry[i] = b.getDaysToExpiry();
+        index = null;
+    }
+
+    public void add(String batchId, String batchName, double batchPrice, double batchAcid, double batchBitter,
+                    double batchSweet, double batchCaffeine, double stock, int days) {
+        if (size == id.length) {
+            grow();
+        }
+        id[size] = batchId;
+        name[size] = batchName;
+        price[size] = batchPrice;
+        acid[size] = batchAcid;
+        bitter[size] = batchBitter;
+        sweet[size] = batchSweet;
+        caffeine[size] = batchCaffeine;
+        availableStock[size] = stock;
+        daysToExpiry[size] = days;
+        size++;
+        index = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int i) { return id[i]; }
+    public String name(int i) { return name[i]; }
+    public double price(int i) { return price[i]; }
+    public double acid(int i) { return acid[i]; }
+    public double bitter(int i) { return bitter[i]; }
+    public double sweet(int i) { return sweet[i]; }
+    public double caffeine(int i) { return caffeine[i]; }
+    public double availableStock(int i) { return availableStock[i]; }
+    public int daysToExpiry(int i) { return daysToExpiry[i]; }
+
+    /**
+     * Position of each lot by id (first one wins on duplicate ids).
+     */
+    public Map<String, Integer> index() {
+        Map<String, Integer> positions = index;
+        if (positions == null) {
+            positions = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                positions.putIfAbsent(id[i], i);
+            }
+            index = positions;
+        }
+        return positions;
+    }
+
+    public CoffeeBatch toBatch(int i) {
+        return CoffeeBatch.builder()
+                .id(id[i])
+                .name(name[i])
+                .price(price[i])
+                .acid(acid[i])
+                .bitter(bitter[i])
+                .sweet(sweet[i])
+                .caffeine(caffeine[i])
+                .availableStock(availableStock[i])
+                .daysToExpiry(daysToExpiry[i])
+                .build();
+    }
+
+    public List<CoffeeBatch> toBatches() {
+        List<CoffeeBatch> batches = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            batches.add(toBatch(i));
+        }
+        return batches;
+    }
+
+    /**
+     * Only the given lots as objects, in the order of {@code ids}; unknown ids are skipped.
+     */
+    public List<CoffeeBatch> toBatches(Collection<String> ids) {
+        Map<String, Integer> positions = index();
+        List<CoffeeBatch> batches = new ArrayList<>(ids.size());
+        for (String batchId : ids) {
+            Integer i = positions.get(batchId);
+            if (i != null) {
+                batches.add(toBatch(i));
+            }
+        }
+        return batches;
+    }
+
+    private void grow() {
+        int c = id.length + (id.length >> 1);
+        id = Arrays.copyOf(id, c);
+        name = Arrays.copyOf(name, c);
+        price = Arrays.copyOf(price, c);
+        acid = Arrays.copyOf(acid, c);
+        bitter = Arrays.copyOf(bitter, c);
+        sweet = Arrays.copyOf(sweet, c);
+        caffeine = Arrays.copyOf(caffeine, c);
+        availableStock = Arrays.copyOf(availableStock, c);
+        daysToExpiry = Arrays.copyOf(daysToExpiry, c);
+    }
+}
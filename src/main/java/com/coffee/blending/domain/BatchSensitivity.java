@@ -0,0 +1,37 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSensitivity {
+    private String batchId;
+    private boolean inRecipe;
+    private double ratio; // 0.0 - 1.0
+
+    // Reduced cost of x[i] in VND (objective change per unit of ratio)
+    private double reducedCost;
+
+    // Price change range (VND/kg) that keeps the recipe unchanged. null = unbounded.
+    private Double priceDeltaMin;
+    private Double priceDeltaMax;
+
+    // Absolute stock range (kg) that keeps the recipe unchanged. null = unbounded.
+    private Double stockMin;
+    private Double stockMax;
+
+    public boolean acceptsPriceDelta(double delta) {
+        return (priceDeltaMin == null || delta >= priceDeltaMin)
+                && (priceDeltaMax == null || delta <= priceDeltaMax);
+    }
+
+    public boolean acceptsStock(double stock) {
+        return (stockMin == null || stock >= stockMin)
+                && (stockMax == null || stock <= stockMax);
+    }
+}
@@ -0,0 +1,17 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlendEvaluation {
+    private List<BlendScore> scores; // same order as the candidates
+    private long computationTimeMicros;
+}
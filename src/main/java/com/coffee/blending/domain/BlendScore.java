@@ -0,0 +1,32 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Solver-free score of one candidate composition, computed like the predicted values
+ * of a {@link BlendingResult}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlendScore {
+    private int candidateIndex;  // position in the submitted candidate list
+    private double ratioSum;     // 1.0 for a complete recipe
+
+    private double predictedPrice;
+    private double predictedAcid;
+    private double predictedBitter;
+    private double predictedSweet;
+    private double predictedCaffeine;
+    private double similarityScore;
+    private double totalCost;    // predictedPrice * totalOutputKg
+
+    private boolean stockOk;
+    private List<String> shortBatches; // lots whose stock cannot cover ratio * totalOutputKg
+}
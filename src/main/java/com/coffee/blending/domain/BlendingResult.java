@@ -5,10 +5,11 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class BlendingResult {
@@ -35,4 +36,18 @@ public class BlendingResult {
     // Smart Retry Info
     private int retryCount;
     private String relaxationTrace;
+
+    // What-if support (set only when sensitivity analysis was requested)
+    private String resultId;
+    private SensitivityReport sensitivity;
+
+    // Recipe store: request fingerprint, and whether this answer was served from the store
+    private String fingerprint;
+    private boolean fromStore;
+
+    // Monte Carlo robustness under cupping-score noise (set only when requested)
+    private RobustnessReport robustness;
+
+    // Backup recipes from the same solve, next best first (set only when alternatives were requested)
+    private List<BlendingResult> alternatives;
 }
@@ -0,0 +1,16 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedRecipe {
+    private int candidateIndex; // position in the submitted candidate list
+    private BlendingResult result;
+    private RobustnessReport robustness;
+}
@@ -0,0 +1,24 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Measurement uncertainty of the cupping scores, as a standard deviation in score points
+ * per attribute, plus Monte Carlo settings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RobustnessOptions {
+    private double acidSd;
+    private double bitterSd;
+    private double sweetSd;
+    private double caffeineSd;
+
+    private int samples; // 0 = default (10,000)
+    private long seed;   // fixed seed -> reproducible report
+}
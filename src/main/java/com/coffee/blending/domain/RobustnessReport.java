@@ -0,0 +1,25 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RobustnessReport {
+    private int samples;
+    private double flavorTolerance;
+
+    // Share of samples where every targeted attribute stays within tolerance
+    private double probabilityWithinTolerance;
+
+    // "acid", "bitter", "sweet", "caffeine" (targeted attributes only)
+    private Map<String, AttributeDistribution> attributes;
+
+    private long computationTimeMicros;
+}
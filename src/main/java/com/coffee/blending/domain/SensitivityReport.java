@@ -0,0 +1,57 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SensitivityReport {
+    // Objective of the final LP (binaries fixed at the chosen support)
+    private double objectiveValue;
+
+    // Factor applied to VND costs inside the objective (objective units per VND)
+    private double objectiveScale;
+
+    // Row name ("sum", "price", "acid", ...) -> dual value in VND
+    private Map<String, Double> constraintDuals;
+
+    private List<BatchSensitivity> batches;
+
+    // Expiry penalty of the params the recipe was solved with (after profile/relaxation)
+    private double expiryPenaltyPerDay;
+
+    /**
+     * Reduced cost (VND) of a lot priced against this report's duals, e.g. a newly
+     * received lot or an unused lot whose price or stock changed. Negative means the
+     * current recipe may no longer be optimal. Local to the LP with the support fixed.
+     */
+    public double reducedCostOf(CoffeeBatch b) {
+        Map<String, Double> duals = constraintDuals == null ? Map.of() : constraintDuals;
+        return b.getPrice() + b.getDaysToExpiry() * expiryPenaltyPerDay
+                - duals.getOrDefault("sum", 0.0)
+                - duals.getOrDefault("price", 0.0) * b.getPrice()
+                - duals.getOrDefault("acid", 0.0) * b.getAcid()
+                - duals.getOrDefault("bitter", 0.0) * b.getBitter()
+                - duals.getOrDefault("sweet", 0.0) * b.getSweet()
+                - duals.getOrDefault("caffeine", 0.0) * b.getCaffeine();
+    }
+
+    public BatchSensitivity find(String batchId) {
+        if (batches == null) {
+            return null;
+        }
+        for (BatchSensitivity b : batches) {
+            if (b.getBatchId().equals(batchId)) {
+                return b;
+            }
+        }
+        return null;
+    }
+}
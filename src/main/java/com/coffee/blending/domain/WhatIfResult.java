@@ -0,0 +1,17 @@
+package com.coffee.blending.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfResult {
+    // false: answered from cached sensitivity ranges, true: warm-started re-solve
+    private boolean resolved;
+    private String explanation;
+    private BlendingResult result;
+}
@@ -0,0 +1,110 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BlendingResult;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * K best recipes with distinct lots from one live model. After each solve a no-good cut
+ * on the chosen support, sum(y[i] for i in S) <= |S| - minDiversity, forces the next
+ * recipe to drop at least minDiversity of those lots; SCIP re-solves the same model with
+ * the cut added instead of starting from a cold build. All solves share one time budget;
+ * the first solve always runs, so at least one result comes back.
+ */
+final class AlternativeSearch {
+
+    interface Extractor {
+        BlendingResult extract(MPSolver.ResultStatus status, long durationMs);
+    }
+
+    // Same zero threshold as result extraction
+    private static final double SUPPORT_EPS = 1e-4;
+    // Floor for the first solve's time limit only, so a spent or zero budget still yields one recipe
+    private static final long MIN_SOLVE_MS = 1000;
+
+    private AlternativeSearch() {
+    }
+
+    static List<BlendingResult> run(BlendingModel model, AlternativesOptions options, long budgetMs,
+                                    Extractor extractor) {
+        MPSolver solver = model.solver;
+        int count = Math.min(options.effectiveCount(), AlternativesOptions.MAX_COUNT);
+        int diversity = options.effectiveMinDiversity();
+        long deadline = System.nanoTime() + budgetMs * 1_000_000;
+        List<BlendingResult> found = new ArrayList<>(count);
+        List<Set<Integer>> supports = new ArrayList<>(count);
+
+        // One solve more than wanted covers a repeated recipe being skipped
+        for (int attempt = 0; found.size() < count && attempt <= count; attempt++) {
+            // The first solve always runs, so the caller gets at least one result
+            long leftMs = (deadline - System.nanoTime()) / 1_000_000;
+            if (leftMs <= 0 && attempt > 0) {
+                break;
+            }
+            // Backups only get what is left, so they never push the call past its budget
+            solver.setTimeLimit(attempt == 0 ? Math.max(leftMs, MIN_SOLVE_MS) : leftMs);
+            long start = System.nanoTime();
+            MPSolver.ResultStatus status = solver.solve();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            boolean feasible = status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE;
+            if (!feasible) {
+                // No (further) recipe: report it only when there is nothing else to return
+                if (found.isEmpty()) {
+                    found.add(extractor.extract(status, durationMs));
+                }
+                break;
+            }
+            Set<Integer> support = support(model);
+            if (!supports.contains(support)) {
+                supports.add(support);
+                found.add(extractor.extract(status, durationMs));
+            }
+            if (found.size() < count && !excludeSupport(model, support, diversity, attempt)) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Lots the recipe actually uses. With minRatio 0 a lot can sit at y = 1 with x = 0,
+     * so the support comes from x, not y.
+     */
+    private static Set<Integer> support(BlendingModel model) {
+        Set<Integer> support = new HashSet<>();
+        for (int i = 0; i < model.x.length; i++) {
+            if (model.x[i].solutionValue() > SUPPORT_EPS) {
+                support.add(i);
+            }
+        }
+        return support;
+    }
+
+    /**
+     * Returns false when the recipe has fewer lots than the diversity asks to drop,
+     * i.e. no other recipe could satisfy the cut.
+     */
+    private static boolean excludeSupport(BlendingModel model, Set<Integer> support, int diversity, int k) {
+        if (support.size() < diversity) {
+            return false;
+        }
+        // Twins of a used lot are exactly the backups wanted here, so the tight formulation's
+        // lot ordering would wrongly cut them off
+        for (MPConstraint row : model.symmetryRows) {
+            row.setLb(-MPSolver.infinity());
+        }
+        // x <= y, so dropping these y's really removes the lots from the next recipe
+        MPConstraint cut = model.solver.makeConstraint(-MPSolver.infinity(), support.size() - diversity,
+                "no_good_" + k);
+        for (int i : support) {
+            cut.setCoefficient(model.y[i], 1.0);
+        }
+        return true;
+    }
+}
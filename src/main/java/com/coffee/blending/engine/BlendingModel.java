@@ -0,0 +1,74 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPObjective;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handles to a built blending model: the x/y columns plus the rows whose duals
+ * matter for sensitivity analysis. Rows that a formulation skips stay null.
+ */
+final class BlendingModel {
+
+    // SCALING: Divide all objective coefficients by 1000
+    static final double OBJECTIVE_SCALE = 0.001;
+
+    final MPSolver solver;
+    final BatchColumns batches;
+    final MPVariable[] x;
+    final MPVariable[] y;
+    final MPObjective objective;
+
+    MPConstraint sumRow;
+    MPConstraint priceRow;
+    MPConstraint acidRow;
+    MPConstraint bitterRow;
+    MPConstraint sweetRow;
+    MPConstraint caffeineRow;
+    // x[i] - y[i] <= 0 rows, re-coefficiented by the tight formulation
+    MPConstraint[] linkUp;
+    // y-ordering rows between identical lots (tight formulation only)
+    final List<MPConstraint> symmetryRows = new ArrayList<>();
+
+    BlendingModel(MPSolver solver, BatchColumns batches, MPVariable[] x, MPVariable[] y, MPObjective objective) {
+        this.solver = solver;
+        this.batches = batches;
+        this.x = x;
+        this.y = y;
+        this.objective = objective;
+    }
+
+    /**
+     * Seed the solver with a previous recipe (x = ratio, y = 1 if used).
+     * SCIP repairs or discards the hint if it no longer fits the model.
+     */
+    void applyHint(BlendingResult warmStart) {
+        if (warmStart == null || warmStart.getComposition() == null) {
+            return;
+        }
+        Map<String, Double> composition = warmStart.getComposition();
+        int n = x.length;
+        MPVariable[] vars = new MPVariable[2 * n];
+        double[] values = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            double ratio = composition.getOrDefault(batches.id(i), 0.0);
+            vars[2 * i] = x[i];
+            values[2 * i] = ratio;
+            vars[2 * i + 1] = y[i];
+            values[2 * i + 1] = ratio > 0 ? 1.0 : 0.0;
+        }
+        solver.setHint(vars, values);
+    }
+
+    static double costCoefficient(CoffeeBatch b, double expiryPenaltyPerDay) {
+        return (b.getPrice() + b.getDaysToExpiry() * expiryPenaltyPerDay) * OBJECTIVE_SCALE;
+    }
+}
@@ -1,12 +1,54 @@
 package com.coffee.blending.engine;
 
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
 import com.coffee.blending.domain.BlendingResult;
 import com.coffee.blending.domain.BlendingTarget;
 import com.coffee.blending.domain.CoffeeBatch;
 import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.SensitivityReport;
 
 import java.util.List;
 
+/**
+ * Engines build their model column by column, so the {@link BatchColumns} overloads are the
+ * primary ones; the list overloads copy the lots into columns first.
+ */
 public interface BlendingOptimizer {
-    BlendingResult optimize(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params);
+    default BlendingResult optimize(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params) {
+        return optimize(batches, target, params, null);
+    }
+
+    default BlendingResult optimize(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params,
+                                    BlendingResult warmStart) {
+        return optimize(BatchColumns.of(batches), target, params, warmStart);
+    }
+
+    default BlendingResult optimize(BatchColumns batches, BlendingTarget target, OptimizerParams params) {
+        return optimize(batches, target, params, null);
+    }
+
+    /**
+     * Solve with an optional previous recipe handed to SCIP as a solution hint.
+     */
+    BlendingResult optimize(BatchColumns batches, BlendingTarget target, OptimizerParams params, BlendingResult warmStart);
+
+    default List<BlendingResult> optimizeAlternatives(List<CoffeeBatch> batches, BlendingTarget target,
+                                                      OptimizerParams params, AlternativesOptions options) {
+        return optimizeAlternatives(BatchColumns.of(batches), target, params, options);
+    }
+
+    /**
+     * The best recipe followed by up to count - 1 backups, each dropping at least
+     * minDiversity lots of every earlier one, from a single model build.
+     * The first entry is the (possibly infeasible) primary result.
+     */
+    List<BlendingResult> optimizeAlternatives(BatchColumns batches, BlendingTarget target, OptimizerParams params,
+                                              AlternativesOptions options);
+
+    /**
+     * Duals, reduced costs and ranges of the final LP around a feasible result.
+     * Returns null when the result has no recipe to analyze.
+     */
+    SensitivityReport analyzeSensitivity(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params, BlendingResult result);
 }
@@ -0,0 +1,10 @@
+package com.coffee.blending.engine;
+
+/**
+ * MILP formulation used by both engines (blending.solver.formulation).
+ * TIGHT adds only valid tightenings on top of STANDARD, so both reach the same optimum.
+ */
+public enum Formulation {
+    STANDARD,
+    TIGHT
+}
@@ -1,14 +1,19 @@
 package com.coffee.blending.engine;
 
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
 import com.coffee.blending.domain.BlendingResult;
 import com.coffee.blending.domain.BlendingTarget;
 import com.coffee.blending.domain.CoffeeBatch;
 import com.coffee.blending.domain.OptimizerParams;
-import com.google.ortools.Loader;
+import com.coffee.blending.domain.SensitivityReport;
+import com.coffee.blending.metrics.OptimizerMetrics;
+import com.coffee.blending.tracing.SolverTracer;
 import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPVariable;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -18,14 +23,20 @@ import java.util.Map;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class GoogleOrToolsOptimizer implements BlendingOptimizer {
 
-    static {
-        Loader.loadNativeLibraries();
-    }
+    private final NativeSolverLoader nativeLoader;
+    private final OptimizerMetrics metrics;
+    private final SolverTracer tracer;
+    private final SolverTuning tuning;
+    private final SensitivityAnalyzer sensitivityAnalyzer = new SensitivityAnalyzer(
+            (solver, batches, target, params) -> buildModel(solver, BatchColumns.of(batches), target, params));
 
     @Override
-    public BlendingResult optimize(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params) {
+    public BlendingResult optimize(BatchColumns batches, BlendingTarget target, OptimizerParams params,
+                                   BlendingResult warmStart) {
+        nativeLoader.ensureLoaded();
         long startTime = System.currentTimeMillis();
         
         // 1. Initialize Solver
@@ -34,9 +45,74 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
             log.error("Could not create solver SCIP");
             return BlendingResult.builder().feasible(false).status("SOLVER_NOT_FOUND").build();
         }
+        SolverTuning.applyTimeLimit(solver, params);
+        tuning.apply(solver, batches.size());
+
+        OptimizerMetrics.Scope metricsScope = metrics.scope("DEFAULT", target.getMode(), params);
+        long buildStart = System.nanoTime();
+        SolverTracer.Stage stage = tracer.start(OptimizerMetrics.PHASE_BUILD, "DEFAULT", target.getMode(), 0);
 
+        BlendingModel model = buildModel(solver, batches, target, params);
+        model.applyHint(warmStart);
+        MPVariable[] x = model.x;
+        MPObjective objective = model.objective;
         int n = batches.size();
-        
+        int numVars = solver.numVariables();
+        int numCons = solver.numConstraints();
+
+        long solveStart = System.nanoTime();
+        stage.end(n, numVars, numCons, null);
+        metricsScope.phase(OptimizerMetrics.PHASE_BUILD, solveStart - buildStart);
+        metricsScope.modelSize(numVars, numCons, n);
+
+        // Solve
+        stage = tracer.start(OptimizerMetrics.PHASE_SOLVE, "DEFAULT", target.getMode(), 0);
+        final MPSolver.ResultStatus status = solver.solve();
+        stage.end(n, numVars, numCons, status.name());
+
+        long extractStart = System.nanoTime();
+        metricsScope.phase(OptimizerMetrics.PHASE_SOLVE, extractStart - solveStart);
+        metricsScope.status(status.name());
+        stage = tracer.start(OptimizerMetrics.PHASE_EXTRACT, "DEFAULT", target.getMode(), 0);
+
+        long endTime = System.currentTimeMillis();
+        BlendingResult result = toResult(status, x, objective, batches, target, endTime - startTime);
+
+        stage.end(n, numVars, numCons, status.name());
+        metricsScope.phase(OptimizerMetrics.PHASE_EXTRACT, System.nanoTime() - extractStart);
+        return result;
+    }
+
+    @Override
+    public List<BlendingResult> optimizeAlternatives(BatchColumns batches, BlendingTarget target,
+                                                     OptimizerParams params, AlternativesOptions options) {
+        nativeLoader.ensureLoaded();
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        if (solver == null) {
+            log.error("Could not create solver SCIP");
+            return List.of(BlendingResult.builder().feasible(false).status("SOLVER_NOT_FOUND").build());
+        }
+        tuning.apply(solver, batches.size());
+
+        OptimizerMetrics.Scope metricsScope = metrics.scope("DEFAULT", target.getMode(), params);
+        long buildStart = System.nanoTime();
+        BlendingModel model = buildModel(solver, batches, target, params);
+        metricsScope.phase(OptimizerMetrics.PHASE_BUILD, System.nanoTime() - buildStart);
+        metricsScope.modelSize(solver.numVariables(), solver.numConstraints(), batches.size());
+
+        return AlternativeSearch.run(model, options, options.budgetMs(params), (status, durationMs) -> {
+            metricsScope.status(status.name());
+            return toResult(status, model.x, model.objective, batches, target, durationMs);
+        });
+    }
+
+    /**
+     * Builds the full MILP on the given solver. Also used with GLOP by the
+     * sensitivity analysis, which fixes y at the chosen support.
+     */
+    BlendingModel buildModel(MPSolver solver, BatchColumns batches, BlendingTarget target, OptimizerParams params) {
+        int n = batches.size();
+
         // 2. Define Variables
         // x[i]: Percentage of batch i (0.0 to 1.0)
         MPVariable[] x = new MPVariable[n];
@@ -47,11 +123,14 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
             x[i] = solver.makeNumVar(0.0, 1.0, "x_" + i);
             y[i] = solver.makeIntVar(0.0, 1.0, "y_" + i);
         }
+        MPObjective objective = solver.objective();
+        BlendingModel model = new BlendingModel(solver, batches, x, y, objective);
 
         // 3. Constraints
 
         // C1. Sum of percentages = 1.0
         MPConstraint sumEncoded = solver.makeConstraint(1.0, 1.0, "sum_one");
+        model.sumRow = sumEncoded;
         for (int i = 0; i < n; i++) {
             sumEncoded.setCoefficient(x[i], 1.0);
         }
@@ -60,12 +139,14 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
         // x[i] <= y[i]  =>  x[i] - y[i] <= 0
         // x[i] >= minRatio * y[i] => x[i] - minRatio * y[i] >= 0
         double minRatio = target.getMinRatio() > 0 ? target.getMinRatio() : 0.0;
+        model.linkUp = new MPConstraint[n];
         
         for (int i = 0; i < n; i++) {
             // Upper bound link
             MPConstraint linkUp = solver.makeConstraint(-MPSolver.infinity(), 0.0, "link_up_" + i);
             linkUp.setCoefficient(x[i], 1.0);
             linkUp.setCoefficient(y[i], -1.0);
+            model.linkUp[i] = linkUp;
 
             // Lower bound link (min ratio)
             if (minRatio > 0) {
@@ -87,7 +168,7 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
         // x[i] * TotalOutput <= Stock[i]
         // x[i] <= Stock[i] / TotalOutput
         for (int i = 0; i < n; i++) {
-            double maxAllowedPct = batches.get(i).getAvailableStock() / target.getTotalOutputKg();
+            double maxAllowedPct = batches.availableStock(i) / target.getTotalOutputKg();
             // If maxAllowedPct > 1, it means stock is sufficient for 100%, so we bound by 1.0
             if (maxAllowedPct < 1.0) {
                 x[i].setBounds(0.0, maxAllowedPct);
@@ -95,7 +176,6 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
         }
 
         // 4. Soft Constraints & Objective
-        MPObjective objective = solver.objective();
         
         // Define Goal variables (Price & Flavor) with Slack
         // Flavors: Acid, Bitter, Sweet, Caffeine
@@ -122,16 +202,17 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
         // => Sum(x[i]*P[i]) - dP+ + dP- = T
         MPConstraint priceCons = solver.makeConstraint(target.getTargetPrice(), target.getTargetPrice(), "balance_price");
         for (int i = 0; i < n; i++) {
-            priceCons.setCoefficient(x[i], batches.get(i).getPrice());
+            priceCons.setCoefficient(x[i], batches.price(i));
         }
         priceCons.setCoefficient(dPricePlus, -1.0);
         priceCons.setCoefficient(dPriceMinus, 1.0);
+        model.priceRow = priceCons;
 
         // Flavor Constraint Equations
-        addFlavorConstraint(solver, x, batches, dAcidPlus, dAcidMinus, target.getTargetAcid(), "acid", (b) -> b.getAcid());
-        addFlavorConstraint(solver, x, batches, dBitterPlus, dBitterMinus, target.getTargetBitter(), "bitter", (b) -> b.getBitter());
-        addFlavorConstraint(solver, x, batches, dSweetPlus, dSweetMinus, target.getTargetSweet(), "sweet", (b) -> b.getSweet());
-        addFlavorConstraint(solver, x, batches, dCafPlus, dCafMinus, target.getTargetCaffeine(), "caffeine", (b) -> b.getCaffeine());
+        model.acidRow = addFlavorConstraint(solver, x, dAcidPlus, dAcidMinus, target.getTargetAcid(), "acid", batches::acid);
+        model.bitterRow = addFlavorConstraint(solver, x, dBitterPlus, dBitterMinus, target.getTargetBitter(), "bitter", batches::bitter);
+        model.sweetRow = addFlavorConstraint(solver, x, dSweetPlus, dSweetMinus, target.getTargetSweet(), "sweet", batches::sweet);
+        model.caffeineRow = addFlavorConstraint(solver, x, dCafPlus, dCafMinus, target.getTargetCaffeine(), "caffeine", batches::caffeine);
 
         // Objective Function Weights & Coefficients
         // Cost Minimization (Base)
@@ -147,17 +228,17 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
         
         // 1. Price Component
         // SCALING: Divide all objective coefficients by 1000
-        double scale = 0.001;
+        double scale = BlendingModel.OBJECTIVE_SCALE;
         
         boolean minimizeAbsolutePrice = target.getMode() == BlendingTarget.OptimizationMode.PRICE_OPTIMIZED;
         
         if (minimizeAbsolutePrice) {
             for (int i = 0; i < n; i++) {
-                objective.setCoefficient(x[i], batches.get(i).getPrice() * scale);
+                objective.setCoefficient(x[i], batches.price(i) * scale);
             }
         } else {
             for (int i = 0; i < n; i++) {
-                 objective.setCoefficient(x[i], batches.get(i).getPrice() * scale);
+                 objective.setCoefficient(x[i], batches.price(i) * scale);
             }
         }
 
@@ -180,18 +261,29 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
         double ep = params.getExpiryPenaltyPerDay();
         for (int i = 0; i < n; i++) {
             double currentCoef = objective.getCoefficient(x[i]);
-            objective.setCoefficient(x[i], currentCoef + (batches.get(i).getDaysToExpiry() * ep * scale));
+            objective.setCoefficient(x[i], currentCoef + (batches.daysToExpiry(i) * ep * scale));
         }
 
         objective.setMinimization();
 
-        // Solve
-        final MPSolver.ResultStatus status = solver.solve();
+        if (tuning.getFormulation() == Formulation.TIGHT) {
+            ModelTightener.tighten(model, target);
+        }
+        return model;
+    }
 
-        long endTime = System.currentTimeMillis();
-        
+    @Override
+    public SensitivityReport analyzeSensitivity(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params,
+                                                BlendingResult result) {
+        nativeLoader.ensureLoaded();
+        return sensitivityAnalyzer.analyze(batches, target, params, result);
+    }
+
+    private BlendingResult toResult(MPSolver.ResultStatus status, MPVariable[] x, MPObjective objective,
+                                    BatchColumns batches, BlendingTarget target, long durationMs) {
+        int n = batches.size();
         BlendingResult result = new BlendingResult();
-        result.setComputationTimeMs(endTime - startTime);
+        result.setComputationTimeMs(durationMs);
         result.setObjectiveValue(objective.value());
         
         if (status == MPSolver.ResultStatus.OPTIMAL || status == MPSolver.ResultStatus.FEASIBLE) {
@@ -210,14 +302,14 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
             for (int i = 0; i < n; i++) {
                 double val = x[i].solutionValue();
                 if (val > 0.0001) { // Threshold for zero
-                    composition.put(batches.get(i).getId(), val);
-                    weights.put(batches.get(i).getId(), val * target.getTotalOutputKg());
+                    composition.put(batches.id(i), val);
+                    weights.put(batches.id(i), val * target.getTotalOutputKg());
                     
-                    finalPrice += val * batches.get(i).getPrice();
-                    finalAcid += val * batches.get(i).getAcid();
-                    finalBitter += val * batches.get(i).getBitter();
-                    finalSweet += val * batches.get(i).getSweet();
-                    finalCaf += val * batches.get(i).getCaffeine();
+                    finalPrice += val * batches.price(i);
+                    finalAcid += val * batches.acid(i);
+                    finalBitter += val * batches.bitter(i);
+                    finalSweet += val * batches.sweet(i);
+                    finalCaf += val * batches.caffeine(i);
                 }
             }
             
@@ -232,23 +324,23 @@ public class GoogleOrToolsOptimizer implements BlendingOptimizer {
             result.setFeasible(false);
             result.setStatus(status.name());
         }
-        
         return result;
     }
 
     private interface AttributeExtractor {
-        double get(CoffeeBatch b);
+        double get(int i);
     }
 
-    private void addFlavorConstraint(MPSolver solver, MPVariable[] x, List<CoffeeBatch> batches,
+    private MPConstraint addFlavorConstraint(MPSolver solver, MPVariable[] x,
                                      MPVariable dPlus, MPVariable dMinus, double targetVal,
                                      String name, AttributeExtractor extractor) {
         // Sum(x[i]*Attr[i]) - d+ + d- = Target
         MPConstraint c = solver.makeConstraint(targetVal, targetVal, name + "_balance");
         for (int i = 0; i < x.length; i++) {
-            c.setCoefficient(x[i], extractor.get(batches.get(i)));
+            c.setCoefficient(x[i], extractor.get(i));
         }
         c.setCoefficient(dPlus, -1.0);
         c.setCoefficient(dMinus, 1.0);
+        return c;
     }
 }
@@ -1,8 +1,10 @@
 package com.coffee.blending.engine;
 
 import com.coffee.blending.domain.*; // Giả định package chứa DTO
-import com.google.ortools.Loader;
+import com.coffee.blending.metrics.OptimizerMetrics;
+import com.coffee.blending.tracing.SolverTracer;
 import com.google.ortools.linearsolver.*;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
@@ -18,17 +20,23 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class HybridOptimizer implements BlendingOptimizer {
 
-    static {
-        // Load thư viện C++ native của Google OR-Tools
-        Loader.loadNativeLibraries();
-    }
-
     private static final double BIG_M = 1e9; // Số dương vô cùng cho logic Big-M
+    private static final int MAX_RETRIES = 3;
+
+    private final NativeSolverLoader nativeLoader;
+    private final OptimizerMetrics metrics;
+    private final SolverTracer tracer;
+    private final SolverTuning tuning;
+    private final SensitivityAnalyzer sensitivityAnalyzer = new SensitivityAnalyzer(
+            (solver, batches, target, params) -> buildModel(solver, BatchColumns.of(batches), target, params));
 
     @Override
-    public BlendingResult optimize(List<CoffeeBatch> allBatches, BlendingTarget target, OptimizerParams params) {
+    public BlendingResult optimize(BatchColumns allBatches, BlendingTarget target, OptimizerParams params,
+                                   BlendingResult warmStart) {
+        nativeLoader.ensureLoaded();
         long startTime = System.currentTimeMillis();
         
         // 1. Initial Attempt
@@ -37,26 +45,15 @@ public class HybridOptimizer implements BlendingOptimizer {
         // Let's decide: Auto-tuning is base. limit is base.
         
         // Clone params to allow modification during retries
-        OptimizerParams currentParams = params.toBuilder().build(); 
-        
-        // Base Auto-tuning (Profile Selection) happens inside solveInternal based on Mode if params are defaults.
-        // But to relax correctly, we needs explicit params. 
-        // So we might need to "Resolve" the profile first if it's default.
-        if (isDefault(currentParams)) {
-             switch (target.getMode()) {
-                case PRICE_OPTIMIZED -> currentParams = OptimizerParams.forMassMarket();
-                case QUALITY_OPTIMIZED -> currentParams = OptimizerParams.forSpecialtyMarket();
-                case BALANCED -> currentParams = OptimizerParams.forBalancedMarket();
-            }
-        }
+        OptimizerParams currentParams = resolveProfile(params, target);
+        OptimizerMetrics.Scope metricsScope = metrics.scope("HYBRID", target.getMode(), currentParams);
 
         BlendingResult result = null;
         StringBuilder trace = new StringBuilder("Start: Standard Constraints. ");
         int retry = 0;
-        final int MAX_RETRIES = 3;
 
         while (retry <= MAX_RETRIES) {
-            result = solveInternal(allBatches, target, currentParams);
+            result = solveInternal(allBatches, target, currentParams, warmStart, metricsScope, retry);
             
             // Check Feasibility & Price Constraint Quality
             boolean priceTooHigh = (target.getTargetPrice() > 0) && (result.getPredictedPrice() > target.getTargetPrice() * 1.1);
@@ -66,19 +63,26 @@ public class HybridOptimizer implements BlendingOptimizer {
                 break;
             }
             
+            // Thời gian của caller giới hạn cả chuỗi retry, không chỉ từng lần giải
+            double leftSec = params.getSolverTimeoutSec() > 0
+                    ? params.getSolverTimeoutSec() - (System.currentTimeMillis() - startTime) / 1000.0
+                    : Double.MAX_VALUE;
+
             // If failed or poor result -> Trigger Relaxation
-            if (retry < MAX_RETRIES) {
+            if (retry < MAX_RETRIES && leftSec > 0) {
                 retry++;
                 trace.append("\nRetry #").append(retry).append(": ");
                 currentParams = relaxParams(currentParams, target.getMode(), retry, trace);
+                currentParams.setSolverTimeoutSec(Math.min(currentParams.getSolverTimeoutSec(), leftSec));
                 log.info("Smart Retry #{}: {}", retry, trace.toString());
             } else {
-                trace.append("\nFailed after max retries.");
+                trace.append(leftSec > 0 ? "\nFailed after max retries." : "\nStopped: solver time limit reached.");
                 break; // Prevent infinite loop
             }
         }
         
         result.setRetryCount(retry);
+        metricsScope.retries(retry);
         result.setRelaxationTrace(trace.toString());
         result.setComputationTimeMs(System.currentTimeMillis() - startTime);
         
@@ -89,7 +93,94 @@ public class HybridOptimizer implements BlendingOptimizer {
         return result;
     }
 
-    private boolean isDefault(OptimizerParams p) {
+    /**
+     * Phương án dự phòng: giải một mô hình duy nhất, sau mỗi công thức thêm no-good cut.
+     * Nếu lần giải đầu không khả thi thì quay về optimize() với Smart Retry (chỉ 1 kết quả).
+     */
+    @Override
+    public List<BlendingResult> optimizeAlternatives(BatchColumns allBatches, BlendingTarget target,
+                                                     OptimizerParams params, AlternativesOptions options) {
+        nativeLoader.ensureLoaded();
+        BatchColumns batches = filterUsable(allBatches);
+        if (batches.size() == 0) {
+            return List.of(BlendingResult.builder().feasible(false).status("OUT_OF_STOCK").build());
+        }
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        if (solver == null) {
+            log.error("CRITICAL: SCIP Solver not found.");
+            return List.of(BlendingResult.builder().feasible(false).status("SOLVER_NOT_FOUND").build());
+        }
+        tuning.apply(solver, batches.size());
+
+        OptimizerParams activeParams = resolveProfile(params, target);
+        OptimizerMetrics.Scope metricsScope = metrics.scope("HYBRID", target.getMode(), activeParams);
+        long buildStart = System.nanoTime();
+        BlendingModel model = buildModel(solver, batches, target, activeParams);
+        metricsScope.phase(OptimizerMetrics.PHASE_BUILD, System.nanoTime() - buildStart);
+        metricsScope.modelSize(solver.numVariables(), solver.numConstraints(), batches.size());
+
+        List<BlendingResult> found = AlternativeSearch.run(model, options, options.budgetMs(activeParams),
+                (status, durationMs) -> {
+                    metricsScope.status(status.name());
+                    return buildResult(status, model.x, batches, target, model.objective.value(), durationMs);
+                });
+        if (found.isEmpty() || !found.get(0).isFeasible()) {
+            return List.of(optimize(allBatches, target, params));
+        }
+        return found;
+    }
+
+    @Override
+    public SensitivityReport analyzeSensitivity(List<CoffeeBatch> allBatches, BlendingTarget target, OptimizerParams params,
+                                                BlendingResult result) {
+        nativeLoader.ensureLoaded();
+        // Replay profile selection + relaxations to recover the params of the final attempt
+        OptimizerParams activeParams = resolveProfile(params, target);
+        StringBuilder ignored = new StringBuilder();
+        for (int attempt = 1; attempt <= Math.min(result.getRetryCount(), MAX_RETRIES); attempt++) {
+            activeParams = relaxParams(activeParams, target.getMode(), attempt, ignored);
+        }
+        return sensitivityAnalyzer.analyze(filterUsable(allBatches), target, activeParams, result);
+    }
+
+    /**
+     * Base Auto-tuning (Profile Selection).
+     * To relax correctly we need explicit params, so resolve the profile first if it's default.
+     * Các harness offline gọi hàm này để giải HYBRID với đúng params mà engine dùng.
+     */
+    static OptimizerParams resolveProfile(OptimizerParams params, BlendingTarget target) {
+        OptimizerParams currentParams = params.toBuilder().build();
+        if (isDefault(currentParams)) {
+             switch (target.getMode()) {
+                case PRICE_OPTIMIZED -> currentParams = OptimizerParams.forMassMarket();
+                case QUALITY_OPTIMIZED -> currentParams = OptimizerParams.forSpecialtyMarket();
+                case BALANCED -> currentParams = OptimizerParams.forBalancedMarket();
+            }
+            // Thời gian của caller là giới hạn trên (vd. deadline của cluster đã clamp sẵn)
+            if (params.getSolverTimeoutSec() > 0 && params.getSolverTimeoutSec() < currentParams.getSolverTimeoutSec()) {
+                currentParams.setSolverTimeoutSec(params.getSolverTimeoutSec());
+            }
+        }
+        return currentParams;
+    }
+
+    /**
+     * Lô còn dùng được (tồn kho > MIN_USABLE_STOCK). Trả lại chính đối tượng nếu không có lô nào bị loại.
+     */
+    static BatchColumns filterUsable(BatchColumns allBatches) {
+        return allBatches.retain(i -> allBatches.availableStock(i) > BatchColumns.MIN_USABLE_STOCK);
+    }
+
+    /**
+     * Cùng bộ lọc cho danh sách; các harness offline dùng lại để dựng đúng mô hình mà engine giải.
+     */
+    static List<CoffeeBatch> filterUsable(List<CoffeeBatch> allBatches) {
+        return allBatches.stream()
+                .filter(b -> b.getAvailableStock() > BatchColumns.MIN_USABLE_STOCK)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isDefault(OptimizerParams p) {
         // Simple check if it matches defaults or is null/empty. 
         // For safety, let's assume if it came from the controller as 'defaults', we treat it as such.
         // But here we can just assume true if we want to enforce profiles.
@@ -101,16 +192,19 @@ public class HybridOptimizer implements BlendingOptimizer {
     /**
      * CORE SOLVER LOGIC (Private)
      */
-    private BlendingResult solveInternal(List<CoffeeBatch> allBatches, BlendingTarget target, OptimizerParams params) {
+    private BlendingResult solveInternal(BatchColumns allBatches, BlendingTarget target, OptimizerParams params,
+                                         BlendingResult warmStart, OptimizerMetrics.Scope metricsScope, int retry) {
         long startTime = System.currentTimeMillis();
+        long filterStart = System.nanoTime();
+        SolverTracer.Stage stage = tracer.start(OptimizerMetrics.PHASE_PREFILTER, "HYBRID", target.getMode(), retry);
         // ---------------------------------------------------------
         // BƯỚC 1: PRE-OPTIMIZATION (LỌC DỮ LIỆU)
         // ---------------------------------------------------------
-        List<CoffeeBatch> batches = allBatches.stream()
-                .filter(b -> b.getAvailableStock() > 0.1)
-                .collect(Collectors.toList());
+        BatchColumns batches = filterUsable(allBatches);
+        stage.end(batches.size(), 0, 0, null);
+        metricsScope.phase(OptimizerMetrics.PHASE_PREFILTER, System.nanoTime() - filterStart);
 
-        if (batches.isEmpty()) {
+        if (batches.size() == 0) {
             return BlendingResult.builder().feasible(false).status("OUT_OF_STOCK").build();
         }
 
@@ -122,8 +216,43 @@ public class HybridOptimizer implements BlendingOptimizer {
         }
         
         // Giới hạn thời gian (Tránh treo hệ thống)
-        solver.setTimeLimit((long) (params.getSolverTimeoutSec() * 1000));
+        SolverTuning.applyTimeLimit(solver, params);
+        // Tham số SCIP đã tune offline theo kích thước tồn kho (nếu có profile)
+        tuning.apply(solver, batches.size());
 
+        int n = batches.size();
+        long buildStart = System.nanoTime();
+        stage = tracer.start(OptimizerMetrics.PHASE_BUILD, "HYBRID", target.getMode(), retry);
+        BlendingModel model = buildModel(solver, batches, target, params);
+        model.applyHint(warmStart);
+        int numVars = solver.numVariables();
+        int numCons = solver.numConstraints();
+        stage.end(n, numVars, numCons, null);
+        long solveStart = System.nanoTime();
+        metricsScope.phase(OptimizerMetrics.PHASE_BUILD, solveStart - buildStart);
+        metricsScope.modelSize(numVars, numCons, n);
+
+        // ---------------------------------------------------------
+        // BƯỚC 6: GIẢI & DỰNG KẾT QUẢ
+        // ---------------------------------------------------------
+        stage = tracer.start(OptimizerMetrics.PHASE_SOLVE, "HYBRID", target.getMode(), retry);
+        final MPSolver.ResultStatus status = solver.solve();
+        stage.end(n, numVars, numCons, status.name());
+        long extractStart = System.nanoTime();
+        metricsScope.phase(OptimizerMetrics.PHASE_SOLVE, extractStart - solveStart);
+        metricsScope.status(status.name());
+
+        stage = tracer.start(OptimizerMetrics.PHASE_EXTRACT, "HYBRID", target.getMode(), retry);
+        BlendingResult result = buildResult(status, model.x, batches, target, model.objective.value(), System.currentTimeMillis() - startTime);
+        stage.end(n, numVars, numCons, status.name());
+        metricsScope.phase(OptimizerMetrics.PHASE_EXTRACT, System.nanoTime() - extractStart);
+        return result;
+    }
+
+    /**
+     * Dựng mô hình MILP trên solver cho trước (SCIP khi giải, GLOP khi phân tích độ nhạy).
+     */
+    BlendingModel buildModel(MPSolver solver, BatchColumns batches, BlendingTarget target, OptimizerParams params) {
         int n = batches.size();
         MPVariable[] x = new MPVariable[n]; // Biến liên tục: Tỷ lệ % (0.0 - 1.0)
         MPVariable[] y = new MPVariable[n]; // Biến nhị phân: Chọn hay không (0/1)
@@ -132,15 +261,14 @@ public class HybridOptimizer implements BlendingOptimizer {
         // BƯỚC 2: KHỞI TẠO BIẾN & RÀNG BUỘC KHO (BOUNDS)
         // ---------------------------------------------------------
         for (int i = 0; i < n; i++) {
-            CoffeeBatch batch = batches.get(i);
-            
             // Tối ưu hóa: Thay vì thêm 1 phương trình ràng buộc (x * Total <= Stock),
             // ta set luôn cận trên (UpperBound) cho biến x. Solver chạy nhanh hơn nhiều.
-            double maxPct = Math.min(1.0, batch.getAvailableStock() / target.getTotalOutputKg());
+            double maxPct = Math.min(1.0, batches.availableStock(i) / target.getTotalOutputKg());
             
-            x[i] = solver.makeNumVar(0.0, maxPct, "x_" + batch.getId());
-            y[i] = solver.makeIntVar(0, 1, "y_" + batch.getId());
+            x[i] = solver.makeNumVar(0.0, maxPct, "x_" + batches.id(i));
+            y[i] = solver.makeIntVar(0, 1, "y_" + batches.id(i));
         }
+        BlendingModel model = new BlendingModel(solver, batches, x, y, solver.objective());
 
         // ---------------------------------------------------------
         // BƯỚC 3: RÀNG BUỘC LOGIC (LOGICAL CONSTRAINTS)
@@ -151,6 +279,8 @@ public class HybridOptimizer implements BlendingOptimizer {
         
         // 3.2. Giới hạn số loại hạt (Cardinality)
         MPConstraint typeCt = solver.makeConstraint(0, target.getMaxBatchTypes(), "max_types");
+        model.sumRow = sumCt;
+        model.linkUp = new MPConstraint[n];
 
         for (int i = 0; i < n; i++) {
             sumCt.setCoefficient(x[i], 1.0);
@@ -162,6 +292,7 @@ public class HybridOptimizer implements BlendingOptimizer {
             MPConstraint linkUp = solver.makeConstraint(-MPSolver.infinity(), 0);
             linkUp.setCoefficient(x[i], 1); 
             linkUp.setCoefficient(y[i], -1);
+            model.linkUp[i] = linkUp;
 
             // 3.4. Tỷ lệ tối thiểu (Min Ratio)
             // Nếu y=1 (chọn) -> x >= minRatio
@@ -191,8 +322,9 @@ public class HybridOptimizer implements BlendingOptimizer {
             double maxPrice = target.getTargetPrice() + activeParams.getPriceTolerance();
             MPConstraint priceCt = solver.makeConstraint(0, maxPrice, "price_limit");
             for (int i = 0; i < n; i++) {
-                priceCt.setCoefficient(x[i], batches.get(i).getPrice());
+                priceCt.setCoefficient(x[i], batches.price(i));
             }
+            model.priceRow = priceCt;
         }
 
         // Tạo các biến bù (Slack Variables) cho hàm mục tiêu
@@ -216,35 +348,35 @@ public class HybridOptimizer implements BlendingOptimizer {
 
         // Thêm ràng buộc cho từng thuộc tính (Chỉ thêm nếu Target >= 0)
         if (target.getTargetAcid() >= 0) {
-            addHybridConstraint(solver, x, batches, dAcidP, dAcidM, target.getTargetAcid(), 
-                                useHardBounds ? hardTol : -1, b -> b.getAcid());
+            model.acidRow = addHybridConstraint(solver, x, dAcidP, dAcidM, target.getTargetAcid(), 
+                                useHardBounds ? hardTol : -1, batches::acid);
         }
         
         if (target.getTargetBitter() >= 0) {
-            addHybridConstraint(solver, x, batches, dBitterP, dBitterM, target.getTargetBitter(), 
-                                useHardBounds ? hardTol : -1, b -> b.getBitter());
+            model.bitterRow = addHybridConstraint(solver, x, dBitterP, dBitterM, target.getTargetBitter(), 
+                                useHardBounds ? hardTol : -1, batches::bitter);
         }
         
         if (target.getTargetSweet() >= 0) {
-            addHybridConstraint(solver, x, batches, dSweetP, dSweetM, target.getTargetSweet(), 
-                                useHardBounds ? hardTol : -1, b -> b.getSweet());
+            model.sweetRow = addHybridConstraint(solver, x, dSweetP, dSweetM, target.getTargetSweet(), 
+                                useHardBounds ? hardTol : -1, batches::sweet);
         }
 
         // Caffeine
         if (target.getTargetCaffeine() >= 0) {
-            addHybridConstraint(solver, x, batches, dCafP, dCafM, target.getTargetCaffeine(), 
-                                0.5, b -> b.getCaffeine());
+            model.caffeineRow = addHybridConstraint(solver, x, dCafP, dCafM, target.getTargetCaffeine(), 
+                                0.5, batches::caffeine);
         }
 
         // ---------------------------------------------------------
         // BƯỚC 5: HÀM MỤC TIÊU (OBJECTIVE FUNCTION)
         // Minimize: Giá + (Ngày hết hạn * ShadowCost) + (Lệch Vị * Penalty)
         // ---------------------------------------------------------
-        MPObjective obj = solver.objective();
+        MPObjective obj = model.objective;
         obj.setMinimization();
 
         // SCALING: Divide all costs by 1000 to improve numerical stability for SCIP
-        double scale = 0.001;
+        double scale = BlendingModel.OBJECTIVE_SCALE;
 
         // 5.1. Thành phần Kinh tế & Kho vận (Cost + FEFO)
         double expiryPenalty = activeParams.getExpiryPenaltyPerDay(); 
@@ -254,10 +386,10 @@ public class HybridOptimizer implements BlendingOptimizer {
             // Expiry Penalty: Phạt hàng 'MỚI' (DaysToExpiry cao) -> Solver thích hàng 'CŨ' (DaysToExpiry thấp)
             // MASS: Penalty cao -> Hàng mới đắt đỏ ảo -> Solver chọn hàng cũ.
             // SPECIALTY: Penalty thấp -> Hàng mới rẻ hơn (về shadow cost) -> Solver thoải mái chọn.
-            double shadowCost = batches.get(i).getDaysToExpiry() * expiryPenalty;
+            double shadowCost = batches.daysToExpiry(i) * expiryPenalty;
             
             // Scaled coefficient
-            double totalCost = batches.get(i).getPrice() + shadowCost;
+            double totalCost = batches.price(i) + shadowCost;
             obj.setCoefficient(x[i], totalCost * scale);
         }
 
@@ -279,33 +411,32 @@ public class HybridOptimizer implements BlendingOptimizer {
         if (target.getTargetCaffeine() >= 0)
             setPenaltyCoeff(obj, dCafP, dCafM, fp * activeParams.getWeightCaffeine() * scale);
 
-        // ---------------------------------------------------------
-        // BƯỚC 6: GIẢI & DỰNG KẾT QUẢ
-        // ---------------------------------------------------------
-        final MPSolver.ResultStatus status = solver.solve();
-
-        return buildResult(status, x, batches, target, obj.value(), System.currentTimeMillis() - startTime);
+        // Công thức chặt (tùy chọn): Big-M theo tồn kho, cắt số loại hạt, phá đối xứng
+        if (tuning.getFormulation() == Formulation.TIGHT) {
+            ModelTightener.tighten(model, target);
+        }
+        return model;
     }
 
     // =================================================================
     // HELPER METHODS (PRIVATE)
     // =================================================================
 
-    private interface AttributeExtractor { double get(CoffeeBatch b); }
+    private interface AttributeExtractor { double get(int i); }
 
     /**
      * Thêm ràng buộc lai (Hybrid Constraint).
      * 1. Tạo phương trình cân bằng để tính biến Slack (dPlus, dMinus).
      * 2. Nếu hardTolerance > 0, thiết lập cận trên cho biến Slack để chặn sai số.
      */
-    private void addHybridConstraint(MPSolver solver, MPVariable[] x, List<CoffeeBatch> batches,
+    private MPConstraint addHybridConstraint(MPSolver solver, MPVariable[] x,
                                      MPVariable dPlus, MPVariable dMinus, double targetVal,
                                      double hardTolerance, AttributeExtractor extractor) {
         
         // Phương trình: Sum(x[i] * Attribute[i]) - dPlus + dMinus = Target
         MPConstraint balanceCt = solver.makeConstraint(targetVal, targetVal);
         for (int i = 0; i < x.length; i++) {
-            balanceCt.setCoefficient(x[i], extractor.get(batches.get(i)));
+            balanceCt.setCoefficient(x[i], extractor.get(i));
         }
         balanceCt.setCoefficient(dPlus, -1.0);
         balanceCt.setCoefficient(dMinus, 1.0);
@@ -316,6 +447,7 @@ public class HybridOptimizer implements BlendingOptimizer {
             dPlus.setBounds(0, hardTolerance);
             dMinus.setBounds(0, hardTolerance);
         }
+        return balanceCt;
     }
 
     private void setPenaltyCoeff(MPObjective obj, MPVariable p, MPVariable m, double weight) {
@@ -324,7 +456,7 @@ public class HybridOptimizer implements BlendingOptimizer {
     }
 
     private BlendingResult buildResult(MPSolver.ResultStatus status, MPVariable[] x, 
-                                       List<CoffeeBatch> batches, BlendingTarget target, 
+                                       BatchColumns batches, BlendingTarget target, 
                                        double objValue, long duration) {
         
         BlendingResult result = new BlendingResult();
@@ -344,15 +476,14 @@ public class HybridOptimizer implements BlendingOptimizer {
                 
                 // Lọc bỏ các số quá nhỏ (nhiễu số học)
                 if (ratio > 0.001) {
-                    CoffeeBatch b = batches.get(i);
-                    composition.put(b.getId(), ratio);
-                    weightDist.put(b.getId(), ratio * target.getTotalOutputKg());
+                    composition.put(batches.id(i), ratio);
+                    weightDist.put(batches.id(i), ratio * target.getTotalOutputKg());
                     
-                    finalPrice += ratio * b.getPrice();
-                    finalAcid += ratio * b.getAcid();
-                    finalBitter += ratio * b.getBitter();
-                    finalSweet += ratio * b.getSweet();
-                    finalCaf += ratio * b.getCaffeine();
+                    finalPrice += ratio * batches.price(i);
+                    finalAcid += ratio * batches.acid(i);
+                    finalBitter += ratio * batches.bitter(i);
+                    finalSweet += ratio * batches.sweet(i);
+                    finalCaf += ratio * batches.caffeine(i);
                 }
             }
             
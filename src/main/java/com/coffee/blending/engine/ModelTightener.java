@@ -0,0 +1,113 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strengthens a built model for {@link Formulation#TIGHT}. Every step cuts off only
+ * LP-relaxation points or symmetric copies of solutions, never an optimal objective value:
+ * - Stock-aware linking: x[i] - u[i] * y[i] <= 0 with u[i] the batch's own upper bound
+ *   instead of 1, and y[i] fixed to 0 for lots that cannot even reach minRatio.
+ * - Cardinality: at least L lots are needed to fill 100% (L = fewest largest bounds
+ *   summing to 1), at most min(maxBatchTypes, floor(1 / minRatio)) fit. With L lots in
+ *   every recipe, each lot is also capped at 1 - (L - 1) * minRatio.
+ * - Symmetry: lots with identical price, flavor and expiry only differ by stock, so the
+ *   larger one is used first (y[a] >= y[b]).
+ */
+final class ModelTightener {
+
+    private static final double EPS = 1e-9;
+
+    private ModelTightener() {
+    }
+
+    private record Profile(double price, double acid, double bitter, double sweet, double caffeine, int days) {
+        static Profile of(BatchColumns b, int i) {
+            return new Profile(b.price(i), b.acid(i), b.bitter(i), b.sweet(i), b.caffeine(i), b.daysToExpiry(i));
+        }
+    }
+
+    static void tighten(BlendingModel model, BlendingTarget target) {
+        int n = model.x.length;
+        if (n == 0) {
+            return;
+        }
+        MPSolver solver = model.solver;
+        MPVariable[] x = model.x;
+        MPVariable[] y = model.y;
+        double minRatio = Math.max(0.0, target.getMinRatio());
+
+        double[] ub = new double[n];
+        for (int i = 0; i < n; i++) {
+            ub[i] = x[i].ub();
+        }
+
+        // Cardinality window [minTypes, maxTypes]
+        double[] sorted = ub.clone();
+        Arrays.sort(sorted);
+        int minTypes = 0;
+        double covered = 0;
+        for (int k = n - 1; k >= 0 && covered < 1.0 - EPS; k--) {
+            covered += sorted[k];
+            minTypes++;
+        }
+        int maxTypes = target.getMaxBatchTypes() > 0 ? Math.min(n, target.getMaxBatchTypes()) : n;
+        if (minRatio > 0) {
+            maxTypes = Math.min(maxTypes, (int) Math.floor(1.0 / minRatio + EPS));
+        }
+        // Not coverable at all: the model is infeasible as built, leave the proof to SCIP
+        if (covered >= 1.0 - EPS) {
+            MPConstraint card = solver.makeConstraint(minTypes, maxTypes, "card_cut");
+            for (int i = 0; i < n; i++) {
+                card.setCoefficient(y[i], 1.0);
+            }
+            double share = 1.0 - (minTypes - 1) * minRatio;
+            for (int i = 0; i < n; i++) {
+                if (share < ub[i]) {
+                    ub[i] = Math.max(0.0, share);
+                    x[i].setUb(ub[i]);
+                }
+            }
+        }
+
+        // Stock-aware linking
+        double floor = Math.max(minRatio, EPS);
+        for (int i = 0; i < n; i++) {
+            if (ub[i] < floor - EPS) {
+                y[i].setUb(0.0);
+                x[i].setUb(0.0);
+            } else if (model.linkUp != null && model.linkUp[i] != null) {
+                model.linkUp[i].setCoefficient(y[i], -ub[i]);
+            }
+        }
+
+        // Symmetry breaking within groups of identical lots, larger bound first
+        Map<Profile, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            groups.computeIfAbsent(Profile.of(model.batches, i), k -> new ArrayList<>()).add(i);
+        }
+        int rows = 0;
+        for (List<Integer> group : groups.values()) {
+            if (group.size() < 2) {
+                continue;
+            }
+            group.sort(Comparator.<Integer>comparingDouble(i -> -ub[i]).thenComparingInt(i -> i));
+            for (int k = 1; k < group.size(); k++) {
+                MPConstraint order = solver.makeConstraint(0.0, MPSolver.infinity(), "sym_" + rows++);
+                order.setCoefficient(y[group.get(k - 1)], 1.0);
+                order.setCoefficient(y[group.get(k)], -1.0);
+                model.symmetryRows.add(order);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.coffee.blending.engine;
+
+import com.google.ortools.Loader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the OR-Tools native libraries once, on first use (or during warm-up),
+ * instead of in the static initializer of every engine.
+ */
+@Slf4j
+@Component
+public class NativeSolverLoader {
+
+    private volatile boolean loaded;
+
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                long start = System.nanoTime();
+                Loader.loadNativeLibraries();
+                loaded = true;
+                log.info("OR-Tools native libraries loaded in {} ms", (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
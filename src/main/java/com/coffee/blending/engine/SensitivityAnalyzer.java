@@ -0,0 +1,238 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.BatchSensitivity;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.SensitivityReport;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+import com.google.ortools.linearsolver.MPVariable;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Post-optimal sensitivity of a MILP recipe.
+ *
+ * The binaries are fixed at the chosen support and the remaining LP is re-solved
+ * with GLOP, which (unlike SCIP) exposes duals and reduced costs:
+ * - Batches outside the recipe are priced against the duals: their reduced cost
+ *   says how far the price must drop before the batch becomes worth using.
+ * - Batches inside the recipe get their price range by re-solving the small
+ *   support-only LP under perturbed prices (price also sits in the price row,
+ *   so plain cost ranging would be wrong). Stock ranges follow from the bounds.
+ *
+ * Ranges are one-at-a-time and local to the chosen support, the usual caveat
+ * for MILP sensitivity; callers re-solve outside them.
+ */
+@Slf4j
+final class SensitivityAnalyzer {
+
+    interface ModelFactory {
+        BlendingModel build(MPSolver solver, List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params);
+    }
+
+    private static final double RATIO_EPS = 1e-6;
+    private static final double COST_EPS = 1e-9;
+    private static final double FIRST_PROBE = 0.01; // 1% of the batch price
+    private static final int BISECTION_STEPS = 10;
+
+    private final ModelFactory factory;
+
+    SensitivityAnalyzer(ModelFactory factory) {
+        this.factory = factory;
+    }
+
+    SensitivityReport analyze(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params,
+                              BlendingResult result) {
+        if (result == null || !result.isFeasible() || result.getComposition() == null
+                || result.getComposition().isEmpty()) {
+            return null;
+        }
+        Map<String, Double> composition = result.getComposition();
+
+        List<CoffeeBatch> support = new ArrayList<>();
+        for (CoffeeBatch b : batches) {
+            if (composition.containsKey(b.getId())) {
+                support.add(b);
+            }
+        }
+
+        BlendingModel lp = solveFixed(support, target, params);
+        if (lp == null) {
+            log.warn("Sensitivity LP not optimal, skipping report");
+            return null;
+        }
+        double[] base = ratios(lp);
+
+        double scale = BlendingModel.OBJECTIVE_SCALE;
+        double piSum = dual(lp.sumRow);
+        double piPrice = dual(lp.priceRow);
+        double piAcid = dual(lp.acidRow);
+        double piBitter = dual(lp.bitterRow);
+        double piSweet = dual(lp.sweetRow);
+        double piCaf = dual(lp.caffeineRow);
+        // d(reducedCost)/d(price): price sits in both the objective and the price row
+        double priceWeight = scale - piPrice;
+
+        List<BatchSensitivity> entries = new ArrayList<>(batches.size());
+        int k = 0;
+        for (CoffeeBatch b : batches) {
+            if (k < support.size() && support.get(k) == b) {
+                entries.add(supportEntry(support, k, base, lp.x[k], target, params));
+                k++;
+                continue;
+            }
+
+            double reducedCost = BlendingModel.costCoefficient(b, params.getExpiryPenaltyPerDay())
+                    - piSum
+                    - piPrice * b.getPrice()
+                    - piAcid * b.getAcid()
+                    - piBitter * b.getBitter()
+                    - piSweet * b.getSweet()
+                    - piCaf * b.getCaffeine();
+
+            // A price increase never makes an unused batch attractive.
+            // A decrease does once the reduced cost turns negative.
+            Double priceDeltaMin = null;
+            if (reducedCost < -COST_EPS) {
+                priceDeltaMin = 0.0;
+            } else if (priceWeight > COST_EPS) {
+                priceDeltaMin = -reducedCost / priceWeight;
+            }
+
+            entries.add(BatchSensitivity.builder()
+                    .batchId(b.getId())
+                    .inRecipe(false)
+                    .ratio(0.0)
+                    .reducedCost(reducedCost / scale)
+                    .priceDeltaMin(priceDeltaMin)
+                    .priceDeltaMax(null)
+                    .stockMin(0.0)
+                    .stockMax(reducedCost < -COST_EPS ? b.getAvailableStock() : null)
+                    .build());
+        }
+
+        Map<String, Double> duals = new HashMap<>();
+        duals.put("sum", piSum / scale);
+        duals.put("price", piPrice / scale);
+        duals.put("acid", piAcid / scale);
+        duals.put("bitter", piBitter / scale);
+        duals.put("sweet", piSweet / scale);
+        duals.put("caffeine", piCaf / scale);
+
+        return SensitivityReport.builder()
+                .objectiveValue(lp.objective.value())
+                .objectiveScale(scale)
+                .constraintDuals(duals)
+                .batches(entries)
+                .expiryPenaltyPerDay(params.getExpiryPenaltyPerDay())
+                .build();
+    }
+
+    private BatchSensitivity supportEntry(List<CoffeeBatch> support, int k, double[] base, MPVariable xk,
+                                          BlendingTarget target, OptimizerParams params) {
+        CoffeeBatch b = support.get(k);
+        double reducedCost = xk.reducedCost();
+        double cap = Math.min(1.0, b.getAvailableStock() / target.getTotalOutputKg());
+        boolean stockBinding = cap < 1.0 && base[k] >= cap - RATIO_EPS && reducedCost < -COST_EPS;
+
+        return BatchSensitivity.builder()
+                .batchId(b.getId())
+                .inRecipe(true)
+                .ratio(base[k])
+                .reducedCost(reducedCost / BlendingModel.OBJECTIVE_SCALE)
+                .priceDeltaMin(priceLimit(support, k, base, -1, target, params))
+                .priceDeltaMax(priceLimit(support, k, base, 1, target, params))
+                // Below the consumed amount the recipe is infeasible; above it nothing changes
+                // unless the stock cap is what holds the ratio down.
+                .stockMin(base[k] * target.getTotalOutputKg())
+                .stockMax(stockBinding ? b.getAvailableStock() : null)
+                .build();
+    }
+
+    /**
+     * Largest price move in one direction that keeps the support-only LP at the same ratios.
+     * Doubles the probe from 1% up to 100% of the price, then bisects the first break.
+     */
+    private double priceLimit(List<CoffeeBatch> support, int k, double[] base, int direction,
+                              BlendingTarget target, OptimizerParams params) {
+        double span = Math.max(support.get(k).getPrice(), 1.0);
+        double stable = 0.0;
+        double broken = -1.0;
+
+        for (double f = FIRST_PROBE; ; f = Math.min(1.0, f * 2)) {
+            if (!sameRecipe(support, k, direction * f * span, base, target, params)) {
+                broken = f * span;
+                break;
+            }
+            stable = f * span;
+            if (f >= 1.0) {
+                return direction * stable;
+            }
+        }
+
+        for (int step = 0; step < BISECTION_STEPS; step++) {
+            double mid = (stable + broken) / 2;
+            if (sameRecipe(support, k, direction * mid, base, target, params)) {
+                stable = mid;
+            } else {
+                broken = mid;
+            }
+        }
+        return direction * stable;
+    }
+
+    private boolean sameRecipe(List<CoffeeBatch> support, int k, double priceDelta, double[] base,
+                               BlendingTarget target, OptimizerParams params) {
+        List<CoffeeBatch> perturbed = new ArrayList<>(support);
+        CoffeeBatch b = support.get(k);
+        perturbed.set(k, b.toBuilder().price(b.getPrice() + priceDelta).build());
+
+        BlendingModel lp = solveFixed(perturbed, target, params);
+        if (lp == null) {
+            return false;
+        }
+        double[] ratios = ratios(lp);
+        for (int i = 0; i < ratios.length; i++) {
+            if (Math.abs(ratios[i] - base[i]) > RATIO_EPS) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Build the engine's own formulation on GLOP over the support only, with every y fixed to 1.
+     */
+    private BlendingModel solveFixed(List<CoffeeBatch> support, BlendingTarget target, OptimizerParams params) {
+        MPSolver solver = MPSolver.createSolver("GLOP");
+        if (solver == null) {
+            log.error("Could not create solver GLOP");
+            return null;
+        }
+        BlendingModel model = factory.build(solver, support, target, params);
+        for (MPVariable yi : model.y) {
+            yi.setInteger(false);
+            yi.setBounds(1.0, 1.0);
+        }
+        return solver.solve() == MPSolver.ResultStatus.OPTIMAL ? model : null;
+    }
+
+    private static double[] ratios(BlendingModel model) {
+        double[] r = new double[model.x.length];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = model.x[i].solutionValue();
+        }
+        return r;
+    }
+
+    private static double dual(MPConstraint row) {
+        return row == null ? 0.0 : row.dualValue();
+    }
+}
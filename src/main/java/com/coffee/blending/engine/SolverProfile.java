@@ -0,0 +1,43 @@
+package com.coffee.blending.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SCIP parameter profile written by the offline tuner (ScipTuner) and read by {@link SolverTuning}.
+ * One bucket per inventory size range; buckets are matched by the smallest maxBatches >= n.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolverProfile {
+
+    private String solver;
+    private String generatedAt;
+    private long seed;
+    @Builder.Default
+    private List<Bucket> buckets = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private int maxBatches;
+        // SCIP settings-file keys, e.g. "presolving/emphasis" -> "fast"
+        @Builder.Default
+        private Map<String, String> parameters = new LinkedHashMap<>();
+        private int instances;
+        // Sum of per-instance median solve times over the tuning corpus
+        private double baselineMs;
+        private double tunedMs;
+    }
+}
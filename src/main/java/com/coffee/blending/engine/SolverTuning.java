@@ -0,0 +1,157 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.OptimizerParams;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.ortools.linearsolver.MPSolver;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies a tuned SCIP parameter profile (blending.solver.profile) to each solver
+ * the engines create, picking the bucket by inventory size.
+ * No profile, an unreadable one, or a bucket SCIP rejects all fall back to SCIP defaults.
+ * Also carries the MILP {@link Formulation} the engines build (blending.solver.formulation).
+ */
+@Slf4j
+@Component
+public class SolverTuning {
+
+    private final int[] maxBatches;
+    private final String[] settings;
+    @Getter
+    private final Formulation formulation;
+    // Formulation plus a hash of the loaded buckets; null for STANDARD without a profile
+    @Getter
+    private final String configId;
+    private volatile boolean rejectedLogged;
+
+    public SolverTuning(@Value("${blending.solver.profile:}") String profileFile,
+                        @Value("${blending.solver.formulation:STANDARD}") Formulation formulation) {
+        this.formulation = formulation;
+        SolverProfile profile = load(profileFile);
+        List<SolverProfile.Bucket> buckets = profile == null ? List.of() : profile.getBuckets().stream()
+                .sorted(Comparator.comparingInt(SolverProfile.Bucket::getMaxBatches))
+                .toList();
+        maxBatches = new int[buckets.size()];
+        settings = new String[buckets.size()];
+        for (int i = 0; i < buckets.size(); i++) {
+            maxBatches[i] = buckets.get(i).getMaxBatches();
+            settings[i] = toSettings(buckets.get(i).getParameters());
+        }
+        configId = formulation == Formulation.STANDARD && buckets.isEmpty() ? null
+                : formulation.name() + ":" + profileHash();
+        if (!buckets.isEmpty()) {
+            log.info("SCIP profile {} loaded: {} size buckets", profileFile, buckets.size());
+        }
+        if (formulation == Formulation.TIGHT) {
+            log.info("Using the tight MILP formulation");
+        }
+    }
+
+    public static SolverTuning none() {
+        return new SolverTuning("", Formulation.STANDARD);
+    }
+
+    /**
+     * Sets the bucket's parameters on a freshly created SCIP solver. Returns false when
+     * the defaults were kept (no bucket, or SCIP rejected the settings).
+     */
+    public boolean apply(MPSolver solver, int batches) {
+        String s = settingsFor(batches);
+        if (s == null) {
+            return false;
+        }
+        if (!solver.setSolverSpecificParametersAsString(s)) {
+            if (!rejectedLogged) {
+                rejectedLogged = true;
+                log.warn("SCIP rejected tuned parameters, solving with defaults: {}", s.replace('\n', ';'));
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * The SCIP time limit every engine solve runs under: params.solverTimeoutSec, or no
+     * limit when it is 0. Also used by the offline harnesses so they measure the same thing.
+     */
+    static void applyTimeLimit(MPSolver solver, OptimizerParams params) {
+        if (params.getSolverTimeoutSec() > 0) {
+            solver.setTimeLimit((long) Math.ceil(params.getSolverTimeoutSec() * 1000));
+        }
+    }
+
+    private String profileHash() {
+        if (maxBatches.length == 0) {
+            return "none";
+        }
+        StringBuilder canonical = new StringBuilder();
+        for (int i = 0; i < maxBatches.length; i++) {
+            canonical.append(maxBatches[i]).append('\n').append(settings[i]).append('\n');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    String settingsFor(int batches) {
+        for (int i = 0; i < maxBatches.length; i++) {
+            if (batches <= maxBatches[i]) {
+                return settings[i].isEmpty() ? null : settings[i];
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return maxBatches.length == 0;
+    }
+
+    /**
+     * SCIP settings-file syntax, one "key = value" per line.
+     */
+    public static String toSettings(Map<String, String> parameters) {
+        StringBuilder sb = new StringBuilder();
+        if (parameters != null) {
+            parameters.forEach((k, v) -> sb.append(k).append(" = ").append(v).append('\n'));
+        }
+        return sb.toString();
+    }
+
+    private static SolverProfile load(String profileFile) {
+        if (profileFile == null || profileFile.isBlank()) {
+            return null;
+        }
+        Path path = Path.of(profileFile);
+        if (!Files.isRegularFile(path)) {
+            log.warn("SCIP profile {} not found, using solver defaults", path);
+            return null;
+        }
+        try {
+            return new ObjectMapper()
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                    .readValue(path.toFile(), SolverProfile.class);
+        } catch (IOException e) {
+            log.warn("SCIP profile {} unreadable, using solver defaults: {}", path, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.google.ortools.linearsolver.MPSolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Background warm-up after startup: loads the native libraries, builds both engines'
+ * models repeatedly on a synthetic inventory so the JIT compiles the model-building
+ * path, and runs a few SCIP solves to prime the native side.
+ *
+ * Registered as the {@code solverWarmup} health indicator and included in the
+ * readiness group, so the instance reports OUT_OF_SERVICE until warm-up is done.
+ */
+@Slf4j
+@Component
+public class SolverWarmup implements HealthIndicator {
+
+    private static final long SEED = 42L;
+    private static final int SOLVE_EVERY = 10;
+    private static final long SOLVE_TIME_LIMIT_MS = 1000;
+
+    private final NativeSolverLoader nativeLoader;
+    private final GoogleOrToolsOptimizer googleOptimizer;
+    private final HybridOptimizer hybridOptimizer;
+    private final boolean enabled;
+    private final int iterations;
+    private final int batchCount;
+
+    private volatile boolean done;
+    private volatile long elapsedMs;
+    private volatile Exception failure;
+
+    public SolverWarmup(NativeSolverLoader nativeLoader,
+                        GoogleOrToolsOptimizer googleOptimizer,
+                        HybridOptimizer hybridOptimizer,
+                        @Value("${blending.warmup.enabled:false}") boolean enabled,
+                        @Value("${blending.warmup.iterations:200}") int iterations,
+                        @Value("${blending.warmup.batches:50}") int batchCount) {
+        this.nativeLoader = nativeLoader;
+        this.googleOptimizer = googleOptimizer;
+        this.hybridOptimizer = hybridOptimizer;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.batchCount = batchCount;
+        this.done = !enabled;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(this::run, "solver-warmup");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public Health health() {
+        if (failure != null) {
+            return Health.down(failure).build();
+        }
+        if (!done) {
+            return Health.outOfService().withDetail("warmup", "running").build();
+        }
+        return enabled
+                ? Health.up().withDetail("iterations", iterations).withDetail("elapsedMs", elapsedMs).build()
+                : Health.up().withDetail("warmup", "disabled").build();
+    }
+
+    private void run() {
+        long start = System.nanoTime();
+        try {
+            nativeLoader.ensureLoaded();
+            BatchColumns batches = BatchColumns.of(syntheticInventory(batchCount));
+            BlendingTarget target = BlendingTarget.builder()
+                    .mode(BlendingTarget.OptimizationMode.BALANCED)
+                    .targetPrice(160000)
+                    .targetAcid(5.5).targetBitter(6.0).targetSweet(5.0).targetCaffeine(2.0)
+                    .totalOutputKg(100)
+                    .minRatio(0.05)
+                    .maxBatchTypes(4)
+                    .build();
+            OptimizerParams params = OptimizerParams.defaults();
+
+            for (int i = 0; i < iterations; i++) {
+                MPSolver solver = MPSolver.createSolver("SCIP");
+                if (solver == null) {
+                    throw new IllegalStateException("Could not create solver SCIP");
+                }
+                if (i % 2 == 0) {
+                    googleOptimizer.buildModel(solver, batches, target, params);
+                } else {
+                    hybridOptimizer.buildModel(solver, batches, target, params);
+                }
+                if (i % SOLVE_EVERY < 2) {
+                    solver.setTimeLimit(SOLVE_TIME_LIMIT_MS);
+                    solver.solve();
+                }
+                solver.delete();
+            }
+            elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            done = true;
+            log.info("Solver warm-up finished: {} model builds (n={}) in {} ms", iterations, batchCount, elapsedMs);
+        } catch (Exception e) {
+            failure = e;
+            log.error("Solver warm-up failed", e);
+        }
+    }
+
+    /**
+     * Robusta/Arabica-like lots with a fixed seed, so every instance warms the same paths.
+     */
+    private static List<CoffeeBatch> syntheticInventory(int n) {
+        Random rnd = new Random(SEED);
+        List<CoffeeBatch> batches = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            boolean arabica = rnd.nextInt(3) == 0;
+            batches.add(CoffeeBatch.builder()
+                    .id("WARMUP_" + i)
+                    .name(arabica ? "Arabica" : "Robusta")
+                    .price(arabica ? 200000 + rnd.nextInt(50000) : 110000 + rnd.nextInt(30000))
+                    .acid(arabica ? 7 + rnd.nextDouble() * 2 : 4 + rnd.nextDouble())
+                    .bitter(arabica ? 3 + rnd.nextDouble() : 7 + rnd.nextDouble() * 2)
+                    .sweet(arabica ? 6 + rnd.nextDouble() * 2 : 3 + rnd.nextDouble())
+                    .caffeine(arabica ? 1.2 + rnd.nextDouble() * 0.3 : 2.2 + rnd.nextDouble() * 0.6)
+                    .availableStock(100 + rnd.nextInt(2000))
+                    .daysToExpiry(30 + rnd.nextInt(300))
+                    .build());
+        }
+        return batches;
+    }
+}
@@ -0,0 +1,160 @@
+package com.coffee.blending.evaluation;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendEvaluation;
+import com.coffee.blending.domain.BlendScore;
+import com.coffee.blending.domain.BlendingTarget;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores candidate compositions without a solver: predicted price and profile, similarity
+ * to the target and a stock check, with the same formulas as HybridOptimizer.buildResult.
+ *
+ * Candidates are processed in blocks of {@value #BLOCK}. The ratios of a block are scattered
+ * into a lot-major matrix (one row per lot used by any candidate of the block, one column
+ * per candidate), so every attribute is accumulated by a plain loop over candidates with
+ * primitive arrays only. C2 auto-vectorizes these loops; slider positions of one recipe
+ * share their lots, so a block of them is only a handful of rows.
+ */
+@Component
+public class BlendEvaluator {
+
+    public static final int MAX_CANDIDATES = 100_000;
+
+    private static final int BLOCK = 256;
+    private static final double STOCK_EPS = 1e-9;
+
+    public BlendEvaluation evaluate(List<Map<String, Double>> candidates, BatchColumns columns,
+                                    BlendingTarget target) {
+        long start = System.nanoTime();
+        int m = candidates.size();
+        Map<String, Integer> index = columns.index();
+        double totalKg = target.getTotalOutputKg();
+
+        double[] ratioSum = new double[m];
+        double[] price = new double[m];
+        double[] acid = new double[m];
+        double[] bitter = new double[m];
+        double[] sweet = new double[m];
+        double[] caffeine = new double[m];
+        double[] similarity = new double[m];
+        int[] shortLots = new int[m];
+
+        Map<Integer, Integer> rowOf = new HashMap<>();
+        int[] lots = new int[16];
+        double[] block = new double[lots.length * BLOCK];
+
+        for (int from = 0; from < m; from += BLOCK) {
+            int width = Math.min(BLOCK, m - from);
+
+            // Scatter: block[row * BLOCK + c] = ratio of lot lots[row] in candidate from + c
+            rowOf.clear();
+            int rows = 0;
+            for (int c = 0; c < width; c++) {
+                Map<String, Double> composition = candidates.get(from + c);
+                if (composition == null) {
+                    continue;
+                }
+                for (Map.Entry<String, Double> e : composition.entrySet()) {
+                    Integer lot = index.get(e.getKey());
+                    if (lot == null) {
+                        throw new IllegalArgumentException(
+                                "Candidate " + (from + c) + " uses unknown batch " + e.getKey());
+                    }
+                    double ratio = e.getValue() == null ? 0.0 : e.getValue();
+                    if (!(ratio >= 0) || Double.isInfinite(ratio)) {
+                        throw new IllegalArgumentException(
+                                "Candidate " + (from + c) + " has an invalid ratio for " + e.getKey());
+                    }
+                    Integer row = rowOf.get(lot);
+                    if (row == null) {
+                        row = rows++;
+                        rowOf.put(lot, row);
+                        if (rows > lots.length) {
+                            lots = Arrays.copyOf(lots, lots.length * 2);
+                            block = Arrays.copyOf(block, lots.length * BLOCK);
+                        }
+                        lots[row] = lot;
+                        Arrays.fill(block, row * BLOCK, (row + 1) * BLOCK, 0.0);
+                    }
+                    block[row * BLOCK + c] += ratio;
+                }
+            }
+
+            // Accumulate lot by lot; the inner loops run over candidates
+            for (int row = 0; row < rows; row++) {
+                int lot = lots[row];
+                int base = row * BLOCK;
+                double p = columns.price(lot);
+                double a = columns.acid(lot);
+                double b = columns.bitter(lot);
+                double s = columns.sweet(lot);
+                double f = columns.caffeine(lot);
+                double cap = totalKg > 0 ? columns.availableStock(lot) / totalKg + STOCK_EPS : Double.MAX_VALUE;
+                for (int c = 0; c < width; c++) {
+                    double r = block[base + c];
+                    int k = from + c;
+                    ratioSum[k] += r;
+                    price[k] += r * p;
+                    acid[k] += r * a;
+                    bitter[k] += r * b;
+                    sweet[k] += r * s;
+                    caffeine[k] += r * f;
+                    shortLots[k] += r > cap ? 1 : 0;
+                }
+            }
+        }
+
+        // Similarity: 100 - (total deviation / total target * 100), floored at 0
+        double tA = target.getTargetAcid();
+        double tB = target.getTargetBitter();
+        double tS = target.getTargetSweet();
+        double totalTarget = tA + tB + tS;
+        double scale = totalTarget > 0 ? 100.0 / totalTarget : 0.0;
+        for (int k = 0; k < m; k++) {
+            double dev = Math.abs(acid[k] - tA) + Math.abs(bitter[k] - tB) + Math.abs(sweet[k] - tS);
+            similarity[k] = Math.max(0, 100.0 - dev * scale);
+        }
+
+        List<BlendScore> scores = new ArrayList<>(m);
+        for (int k = 0; k < m; k++) {
+            scores.add(BlendScore.builder()
+                    .candidateIndex(k)
+                    .ratioSum(ratioSum[k])
+                    .predictedPrice(price[k])
+                    .predictedAcid(acid[k])
+                    .predictedBitter(bitter[k])
+                    .predictedSweet(sweet[k])
+                    .predictedCaffeine(caffeine[k])
+                    .similarityScore(similarity[k])
+                    .totalCost(price[k] * totalKg)
+                    .stockOk(shortLots[k] == 0)
+                    .shortBatches(shortLots[k] == 0 ? null
+                            : shortBatches(candidates.get(k), columns, index, totalKg))
+                    .build());
+        }
+
+        return BlendEvaluation.builder()
+                .scores(scores)
+                .computationTimeMicros((System.nanoTime() - start) / 1000)
+                .build();
+    }
+
+    private static List<String> shortBatches(Map<String, Double> composition, BatchColumns columns,
+                                             Map<String, Integer> index, double totalKg) {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, Double> e : composition.entrySet()) {
+            double ratio = e.getValue() == null ? 0.0 : e.getValue();
+            if (ratio > columns.availableStock(index.get(e.getKey())) / totalKg + STOCK_EPS) {
+                out.add(e.getKey());
+            }
+        }
+        return out;
+    }
+}
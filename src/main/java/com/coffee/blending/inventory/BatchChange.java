@@ -0,0 +1,32 @@
+package com.coffee.blending.inventory;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.CoffeeBatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The effect of an applied {@link InventoryChange} on one lot.
+ * {@code before} is null for a new lot; {@code after} is null once the lot is depleted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchChange {
+    private String batchId;
+    private CoffeeBatch before;
+    private CoffeeBatch after;
+
+    public double stockBefore() {
+        return before == null ? 0.0 : before.getAvailableStock();
+    }
+
+    public double stockAfter() {
+        return after == null ? 0.0 : after.getAvailableStock();
+    }
+
+    public boolean isDepleted() {
+        return after == null || after.getAvailableStock() <= BatchColumns.MIN_USABLE_STOCK;
+    }
+}
@@ -0,0 +1,22 @@
+package com.coffee.blending.inventory;
+
+import com.coffee.blending.domain.CoffeeBatch;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One inventory movement. Either {@code lot} (a received lot, replacing any lot with
+ * the same id) or {@code batchId} with a stock delta and/or a new price.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryChange {
+    private String batchId;
+    private double stockDelta; // kg, negative = consumed
+    private Double price;      // new price (VND/kg), null = unchanged
+    private CoffeeBatch lot;
+}
@@ -0,0 +1,18 @@
+package com.coffee.blending.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Published after a tenant's live inventory changes. {@code reload} marks a full import,
+ * after which per-lot changes are not available.
+ */
+@Data
+@AllArgsConstructor
+public class InventoryChangedEvent {
+    private String tenant;
+    private List<BatchChange> changes;
+    private boolean reload;
+}
@@ -0,0 +1,360 @@
+package com.coffee.blending.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk loader for warehouse exports. The file is memory-mapped and cut into chunks
+ * that are parsed in parallel straight from the mapped bytes: numbers are decoded
+ * in place and ids are copied into a byte arena, so no per-row Strings are created.
+ *
+ * CSV: header row naming the columns (any order, case-insensitive):
+ *   id, price, acid, bitter, sweet, caffeine, availableStock (or stock), daysToExpiry (or days).
+ *   Other columns are ignored; quoted fields must not contain commas.
+ *
+ * BINARY (little-endian, fixed width):
+ *   header:  "CBIN" | int version (1) | int recordCount | int idWidth
+ *   record:  id (idWidth bytes, zero-padded UTF-8) | price, acid, bitter, sweet,
+ *            caffeine, availableStock (6 x float64) | daysToExpiry (int32)
+ */
+public class InventoryImporter {
+
+    public enum Format { CSV, BINARY }
+
+    private static final int MIN_CHUNK_BYTES = 1 << 20;
+    private static final int BINARY_HEADER_BYTES = 16;
+    private static final int BINARY_MAGIC = 0x4E494243; // "CBIN" read little-endian
+
+    private static final int F_SKIP = -1;
+    private static final int F_ID = 0;
+    private static final int F_PRICE = 1;
+    private static final int F_ACID = 2;
+    private static final int F_BITTER = 3;
+    private static final int F_SWEET = 4;
+    private static final int F_CAFFEINE = 5;
+    private static final int F_STOCK = 6;
+    private static final int F_DAYS = 7;
+
+    private static final double[] POW10 = new double[23];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    public InventorySnapshot importFile(Path path, Format format) throws IOException {
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Inventory file larger than 2 GB: " + path);
+            }
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            List<Chunk> chunks = format == Format.BINARY ? parseBinary(buf) : parseCsv(buf);
+            return merge(path.getFileName().toString(), chunks, System.currentTimeMillis() - start);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // CSV
+    // ---------------------------------------------------------------
+
+    private List<Chunk> parseCsv(ByteBuffer buf) {
+        int limit = buf.limit();
+        int headerEnd = nextLine(buf, 0, limit);
+        int[] fieldOf = parseHeader(buf, 0, trimEol(buf, 0, headerEnd));
+
+        int dataStart = Math.min(headerEnd + 1, limit);
+        int chunkCount = chunkCount(limit - dataStart);
+        int[] bounds = new int[chunkCount + 1];
+        bounds[0] = dataStart;
+        bounds[chunkCount] = limit;
+        for (int k = 1; k < chunkCount; k++) {
+            int approx = dataStart + (int) ((long) (limit - dataStart) * k / chunkCount);
+            bounds[k] = Math.max(bounds[k - 1], Math.min(limit, nextLine(buf, approx, limit) + 1));
+        }
+
+        return IntStream.range(0, chunkCount).parallel()
+                .mapToObj(k -> parseCsvChunk(buf, bounds[k], bounds[k + 1], fieldOf))
+                .toList();
+    }
+
+    private int[] parseHeader(ByteBuffer buf, int start, int end) {
+        String header = StandardCharsets.UTF_8.decode(buf.duplicate().position(start).limit(end)).toString();
+        String[] names = header.split(",");
+        int[] fieldOf = new int[names.length];
+        boolean hasId = false;
+        for (int c = 0; c < names.length; c++) {
+            String name = names[c].trim().replace("\"", "").toLowerCase(Locale.ROOT);
+            fieldOf[c] = switch (name) {
+                case "id" -> F_ID;
+                case "price" -> F_PRICE;
+                case "acid" -> F_ACID;
+                case "bitter" -> F_BITTER;
+                case "sweet" -> F_SWEET;
+                case "caffeine" -> F_CAFFEINE;
+                case "availablestock", "stock" -> F_STOCK;
+                case "daystoexpiry", "days" -> F_DAYS;
+                default -> F_SKIP;
+            };
+            hasId |= fieldOf[c] == F_ID;
+        }
+        if (!hasId) {
+            throw new IllegalArgumentException("CSV header has no id column");
+        }
+        return fieldOf;
+    }
+
+    private Chunk parseCsvChunk(ByteBuffer buf, int start, int end, int[] fieldOf) {
+        Chunk chunk = new Chunk(Math.max(16, (end - start) / 48));
+        double[] row = new double[F_DAYS + 1];
+        int pos = start;
+        while (pos < end) {
+            int lineEnd = nextLine(buf, pos, end);
+            int stop = trimEol(buf, pos, lineEnd);
+            if (stop > pos) {
+                Arrays.fill(row, 0.0);
+                int idStart = -1;
+                int idEnd = -1;
+                int col = 0;
+                int fieldStart = pos;
+                for (int i = pos; i <= stop; i++) {
+                    if (i == stop || buf.get(i) == ',') {
+                        int f = col < fieldOf.length ? fieldOf[col] : F_SKIP;
+                        if (f == F_ID) {
+                            idStart = fieldStart;
+                            idEnd = i;
+                        } else if (f != F_SKIP) {
+                            row[f] = parseNumber(buf, fieldStart, i);
+                        }
+                        col++;
+                        fieldStart = i + 1;
+                    }
+                }
+                if (idStart < 0) {
+                    throw new IllegalArgumentException("CSV row at byte " + pos + " has no id");
+                }
+                chunk.add(buf, idStart, idEnd, row[F_PRICE], row[F_ACID], row[F_BITTER], row[F_SWEET],
+                        row[F_CAFFEINE], row[F_STOCK], (int) row[F_DAYS]);
+            }
+            pos = lineEnd + 1;
+        }
+        return chunk;
+    }
+
+    private static int nextLine(ByteBuffer buf, int from, int limit) {
+        int i = from;
+        while (i < limit && buf.get(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEol(ByteBuffer buf, int start, int lineEnd) {
+        return lineEnd > start && buf.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    /**
+     * Decimal parser working on the mapped bytes (sign, fraction, exponent). Empty fields read as 0.
+     */
+    static double parseNumber(ByteBuffer buf, int start, int end) {
+        while (start < end && (buf.get(start) == ' ' || buf.get(start) == '"')) start++;
+        while (end > start && (buf.get(end - 1) == ' ' || buf.get(end - 1) == '"')) end--;
+        if (start == end) {
+            return 0.0;
+        }
+
+        boolean negative = false;
+        byte first = buf.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (int i = start; i < end; i++) {
+            byte b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa > 0) digits++;
+                    if (fraction) exponent--;
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b == 'e' || b == 'E') {
+                exponent += (int) parseNumber(buf, i + 1, end);
+                break;
+            } else {
+                throw new IllegalArgumentException("Invalid number at byte " + i);
+            }
+        }
+
+        double value;
+        if (exponent == 0) {
+            value = mantissa;
+        } else if (exponent > 0) {
+            value = exponent < POW10.length ? mantissa * POW10[exponent] : mantissa * Math.pow(10, exponent);
+        } else {
+            value = -exponent < POW10.length ? mantissa / POW10[-exponent] : mantissa / Math.pow(10, -exponent);
+        }
+        return negative ? -value : value;
+    }
+
+    // ---------------------------------------------------------------
+    // BINARY
+    // ---------------------------------------------------------------
+
+    private List<Chunk> parseBinary(ByteBuffer buf) {
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.limit() < BINARY_HEADER_BYTES || buf.getInt(0) != BINARY_MAGIC) {
+            throw new IllegalArgumentException("Not a CBIN inventory export");
+        }
+        int version = buf.getInt(4);
+        if (version != 1) {
+            throw new IllegalArgumentException("Unsupported CBIN version " + version);
+        }
+        int count = buf.getInt(8);
+        int idWidth = buf.getInt(12);
+        int recordBytes = idWidth + 6 * Double.BYTES + Integer.BYTES;
+        if ((long) count * recordBytes + BINARY_HEADER_BYTES > buf.limit()) {
+            throw new IllegalArgumentException("CBIN export truncated: expected " + count + " records");
+        }
+
+        int chunkCount = chunkCount((long) count * recordBytes);
+        return IntStream.range(0, chunkCount).parallel()
+                .mapToObj(k -> {
+                    int from = (int) ((long) count * k / chunkCount);
+                    int to = (int) ((long) count * (k + 1) / chunkCount);
+                    Chunk chunk = new Chunk(to - from);
+                    for (int r = from; r < to; r++) {
+                        int off = BINARY_HEADER_BYTES + r * recordBytes;
+                        int idEnd = off;
+                        while (idEnd < off + idWidth && buf.get(idEnd) != 0) {
+                            idEnd++;
+                        }
+                        int p = off + idWidth;
+                        chunk.add(buf, off, idEnd,
+                                buf.getDouble(p), buf.getDouble(p + 8), buf.getDouble(p + 16),
+                                buf.getDouble(p + 24), buf.getDouble(p + 32), buf.getDouble(p + 40),
+                                buf.getInt(p + 48));
+                    }
+                    return chunk;
+                })
+                .toList();
+    }
+
+    // ---------------------------------------------------------------
+    // CHUNKS
+    // ---------------------------------------------------------------
+
+    private static int chunkCount(long bytes) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return (int) Math.max(1, Math.min(parallelism, bytes / MIN_CHUNK_BYTES));
+    }
+
+    private static InventorySnapshot merge(String source, List<Chunk> chunks, long parseMillis) {
+        int size = 0;
+        int idBytes = 0;
+        for (Chunk c : chunks) {
+            size += c.n;
+            idBytes += c.idLength;
+        }
+
+        double[][] cols = new double[6][size];
+        int[] days = new int[size];
+        byte[] ids = new byte[idBytes];
+        int[] offsets = new int[size + 1];
+
+        int row = 0;
+        int idPos = 0;
+        for (Chunk c : chunks) {
+            for (int f = 0; f < 6; f++) {
+                System.arraycopy(c.cols[f], 0, cols[f], row, c.n);
+            }
+            System.arraycopy(c.days, 0, days, row, c.n);
+            System.arraycopy(c.ids, 0, ids, idPos, c.idLength);
+            for (int i = 0; i < c.n; i++) {
+                offsets[row + i + 1] = idPos + c.idEnds[i];
+            }
+            row += c.n;
+            idPos += c.idLength;
+        }
+
+        return new InventorySnapshot(source, parseMillis, size, cols[0], cols[1], cols[2], cols[3], cols[4], cols[5],
+                days, ids, offsets);
+    }
+
+    /**
+     * Rows parsed by one worker: primitive columns plus an id byte arena.
+     */
+    private static final class Chunk {
+        // price, acid, bitter, sweet, caffeine, availableStock
+        double[][] cols;
+        int[] days;
+        int[] idEnds;
+        byte[] ids;
+        int idLength;
+        int n;
+
+        Chunk(int capacity) {
+            int c = Math.max(capacity, 4);
+            cols = new double[6][c];
+            days = new int[c];
+            idEnds = new int[c];
+            ids = new byte[c * 12];
+        }
+
+        void add(ByteBuffer buf, int idStart, int idEnd, double price, double acid, double bitter, double sweet,
+                 double caffeine, double stock, int daysToExpiry) {
+            while (idStart < idEnd && (buf.get(idStart) == ' ' || buf.get(idStart) == '"')) idStart++;
+            while (idEnd > idStart && (buf.get(idEnd - 1) == ' ' || buf.get(idEnd - 1) == '"')) idEnd--;
+            if (idStart == idEnd) {
+                throw new IllegalArgumentException("Inventory row at byte " + idStart + " has an empty id");
+            }
+
+            if (n == days.length) {
+                int c = n + (n >> 1);
+                for (int f = 0; f < 6; f++) {
+                    cols[f] = Arrays.copyOf(cols[f], c);
+                }
+                days = Arrays.copyOf(days, c);
+                idEnds = Arrays.copyOf(idEnds, c);
+            }
+            int len = idEnd - idStart;
+            if (idLength + len > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, idLength + len));
+            }
+            buf.get(idStart, ids, idLength, len);
+            idLength += len;
+
+            cols[0][n] = price;
+            cols[1][n] = acid;
+            cols[2][n] = bitter;
+            cols[3][n] = sweet;
+            cols[4][n] = caffeine;
+            cols[5][n] = stock;
+            days[n] = daysToExpiry;
+            idEnds[n] = idLength;
+            n++;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.coffee.blending.inventory;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.tenant.TenantScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the server-side inventory snapshot that optimize calls can solve against
+ * instead of shipping batches in every request. Imports swap the snapshot atomically.
+ *
+ * Incremental changes (consumption, receipts, repricing) are applied copy-on-write to
+ * the live columns of usable lots and published as an {@link InventoryChangedEvent}.
+ *
+ * Every tenant has its own snapshot and live columns. Non-default tenants import from
+ * their own subdirectory of the import directory.
+ */
+@Slf4j
+@Service
+public class InventoryService {
+
+    private final InventoryImporter importer = new InventoryImporter();
+    private final Path importDir;
+    private final ApplicationEventPublisher events;
+    private final Map<String, TenantInventory> tenants = new ConcurrentHashMap<>();
+
+    public InventoryService(@Value("${blending.inventory.import-dir:imports}") String importDir,
+                            ApplicationEventPublisher events) {
+        this.importDir = Path.of(importDir).toAbsolutePath().normalize();
+        this.events = events;
+    }
+
+    /**
+     * Import a file from the configured import directory (names only, no paths outside it).
+     */
+    public InventorySummary importFile(String fileName, InventoryImporter.Format format) throws IOException {
+        return importFile(TenantScheduler.DEFAULT_TENANT, fileName, format);
+    }
+
+    public InventorySummary importFile(String tenant, String fileName, InventoryImporter.Format format)
+            throws IOException {
+        Path dir = TenantScheduler.DEFAULT_TENANT.equals(tenant) ? importDir : importDir.resolve(tenant).normalize();
+        Path path = dir.resolve(fileName).normalize();
+        if (!dir.startsWith(importDir) || !path.startsWith(dir)) {
+            throw new IllegalArgumentException("Import file must be inside " + dir);
+        }
+        InventorySnapshot snapshot = importer.importFile(path, format);
+        TenantInventory inventory = inventory(tenant);
+        synchronized (inventory) {
+            inventory.current.set(snapshot);
+            inventory.live = snapshot.usableColumns();
+            inventory.positions = null;
+        }
+
+        InventorySummary summary = snapshot.summary();
+        log.info("Imported inventory {} for tenant {}: {} rows ({} usable) in {} ms",
+                summary.getSource(), tenant, summary.getRows(), summary.getUsableRows(), summary.getImportMillis());
+        events.publishEvent(new InventoryChangedEvent(tenant, List.of(), true));
+        return summary;
+    }
+
+    public InventorySnapshot current() {
+        return current(TenantScheduler.DEFAULT_TENANT);
+    }
+
+    public InventorySnapshot current(String tenant) {
+        TenantInventory inventory = tenants.get(tenant);
+        return inventory == null ? null : inventory.current.get();
+    }
+
+    public List<CoffeeBatch> usableBatches() {
+        return usableBatches(TenantScheduler.DEFAULT_TENANT);
+    }
+
+    /**
+     * The tenant's usable lots as objects, materialized once per inventory version. Only for
+     * callers that need the whole list (sensitivity, cluster fan-out); solves use {@link #usableColumns}.
+     */
+    public List<CoffeeBatch> usableBatches(String tenant) {
+        BatchColumns columns = usableColumns(tenant);
+        TenantInventory inventory = tenants.get(tenant);
+        Materialized objects = inventory.objects;
+        if (objects == null || objects.source() != columns) {
+            objects = new Materialized(columns, Collections.unmodifiableList(columns.toBatches()));
+            inventory.objects = objects;
+        }
+        return objects.batches();
+    }
+
+    public BatchColumns usableColumns(String tenant) {
+        TenantInventory inventory = tenants.get(tenant);
+        BatchColumns columns = inventory == null ? null : inventory.live;
+        if (columns == null) {
+            throw new IllegalArgumentException("No inventory snapshot has been imported");
+        }
+        return columns;
+    }
+
+    /**
+     * Apply a set of movements as one new inventory version. Lots that drop to unusable
+     * stock leave the live columns. Starts from an empty inventory if nothing was imported.
+     */
+    public List<BatchChange> applyChanges(List<InventoryChange> changes) {
+        return applyChanges(TenantScheduler.DEFAULT_TENANT, changes);
+    }
+
+    public List<BatchChange> applyChanges(String tenant, List<InventoryChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            return List.of();
+        }
+        List<BatchChange> applied = new ArrayList<>(changes.size());
+        TenantInventory inventory = inventory(tenant);
+        synchronized (inventory) {
+            BatchColumns next = inventory.live == null ? new BatchColumns(changes.size()) : inventory.live.copy();
+            Map<String, Integer> positions = inventory.positions;
+            if (positions == null) {
+                positions = new HashMap<>(next.size() * 2);
+                inventory.positions = positions;
+                for (int i = 0; i < next.size(); i++) {
+                    positions.put(next.id(i), i);
+                }
+            }
+
+            BitSet depleted = new BitSet();
+            try {
+                for (InventoryChange change : changes) {
+                    BatchChange effect = apply(change, next, positions);
+                    applied.add(effect);
+                    if (effect.isDepleted() && effect.getBefore() != null) {
+                        depleted.set(positions.remove(effect.getBatchId()));
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Nothing is published; the position map no longer matches live, rebuild it next time
+                inventory.positions = null;
+                throw e;
+            }
+
+            if (!depleted.isEmpty()) {
+                next = next.retain(i -> !depleted.get(i));
+                positions.clear();
+                for (int i = 0; i < next.size(); i++) {
+                    positions.put(next.id(i), i);
+                }
+            }
+            inventory.live = next;
+        }
+
+        events.publishEvent(new InventoryChangedEvent(tenant, applied, false));
+        return applied;
+    }
+
+    private TenantInventory inventory(String tenant) {
+        return tenants.computeIfAbsent(tenant, t -> new TenantInventory());
+    }
+
+    private BatchChange apply(InventoryChange change, BatchColumns next, Map<String, Integer> positions) {
+        if (change.getLot() != null) {
+            CoffeeBatch lot = change.getLot();
+            if (lot.getId() == null || lot.getId().isEmpty() || lot.getPrice() < 0 || lot.getAvailableStock() < 0) {
+                throw new IllegalArgumentException("Received lot needs an id, a price and a non-negative stock");
+            }
+            Integer pos = positions.get(lot.getId());
+            CoffeeBatch before = pos == null ? null : next.toBatch(pos);
+            if (pos != null) {
+                next.set(pos, lot);
+            } else if (lot.getAvailableStock() > BatchColumns.MIN_USABLE_STOCK) {
+                positions.put(lot.getId(), next.size());
+                next.add(lot);
+            }
+            return new BatchChange(lot.getId(), before, lot);
+        }
+
+        Integer pos = change.getBatchId() == null ? null : positions.get(change.getBatchId());
+        if (pos == null) {
+            throw new IllegalArgumentException("Batch not in inventory: " + change.getBatchId());
+        }
+        CoffeeBatch before = next.toBatch(pos);
+        double stock = Math.max(0.0, before.getAvailableStock() + change.getStockDelta());
+        double price = change.getPrice() == null ? before.getPrice() : change.getPrice();
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative: " + change.getBatchId());
+        }
+        CoffeeBatch after = before.toBuilder().availableStock(stock).price(price).build();
+        next.set(pos, after);
+        return new BatchChange(before.getId(), before, after);
+    }
+
+    private static final class TenantInventory {
+        final AtomicReference<InventorySnapshot> current = new AtomicReference<>();
+        // Usable lots as solved against; replaced (never mutated) on import or change
+        volatile BatchColumns live;
+        // Writer-side id -> position in live, built on the first change after an import
+        Map<String, Integer> positions;
+        // Object copy of live for the list callers, rebuilt when live is replaced
+        volatile Materialized objects;
+    }
+
+    private record Materialized(BatchColumns source, List<CoffeeBatch> batches) {
+    }
+}
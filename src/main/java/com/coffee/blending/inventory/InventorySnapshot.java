@@ -0,0 +1,119 @@
+package com.coffee.blending.inventory;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.CoffeeBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Immutable, columnar inventory loaded by {@link InventoryImporter}.
+ * Batch ids live in one byte arena and become Strings only for lots with usable stock.
+ */
+public final class InventorySnapshot {
+
+    private final String source;
+    private final Instant importedAt;
+    private final long importMillis;
+
+    private final int size;
+    private final double[] price;
+    private final double[] acid;
+    private final double[] bitter;
+    private final double[] sweet;
+    private final double[] caffeine;
+    private final double[] availableStock;
+    private final int[] daysToExpiry;
+    private final byte[] idBytes;
+    private final int[] idOffsets; // size + 1 entries
+
+    InventorySnapshot(String source, long importMillis, int size, double[] price, double[] acid, double[] bitter,
+                      double[] sweet, double[] caffeine, double[] availableStock, int[] daysToExpiry,
+                      byte[] idBytes, int[] idOffsets) {
+        this.source = source;
+        this.importedAt = Instant.now();
+        this.importMillis = importMillis;
+        this.size = size;
+        this.price = price;
+        this.acid = acid;
+        this.bitter = bitter;
+        this.sweet = sweet;
+        this.caffeine = caffeine;
+        this.availableStock = availableStock;
+        this.daysToExpiry = daysToExpiry;
+        this.idBytes = idBytes;
+        this.idOffsets = idOffsets;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int i) {
+        return new String(idBytes, idOffsets[i], idOffsets[i + 1] - idOffsets[i], StandardCharsets.UTF_8);
+    }
+
+    public double price(int i) { return price[i]; }
+    public double acid(int i) { return acid[i]; }
+    public double bitter(int i) { return bitter[i]; }
+    public double sweet(int i) { return sweet[i]; }
+    public double caffeine(int i) { return caffeine[i]; }
+    public double availableStock(int i) { return availableStock[i]; }
+    public int daysToExpiry(int i) { return daysToExpiry[i]; }
+
+    public boolean isUsable(int i) {
+        return availableStock[i] > BatchColumns.MIN_USABLE_STOCK;
+    }
+
+    public CoffeeBatch toBatch(int i) {
+        String id = id(i);
+        return CoffeeBatch.builder()
+                .id(id)
+                .name(id)
+                .price(price[i])
+                .acid(acid[i])
+                .bitter(bitter[i])
+                .sweet(sweet[i])
+                .caffeine(caffeine[i])
+                .availableStock(availableStock[i])
+                .daysToExpiry(daysToExpiry[i])
+                .build();
+    }
+
+    /**
+     * Lots with usable stock copied straight from the arrays into columns; no per-lot objects.
+     */
+    public BatchColumns usableColumns() {
+        int usableRows = 0;
+        for (int i = 0; i < size; i++) {
+            if (isUsable(i)) {
+                usableRows++;
+            }
+        }
+        BatchColumns cols = new BatchColumns(usableRows);
+        for (int i = 0; i < size; i++) {
+            if (isUsable(i)) {
+                String id = id(i);
+                cols.add(id, id, price[i], acid[i], bitter[i], sweet[i], caffeine[i], availableStock[i],
+                        daysToExpiry[i]);
+            }
+        }
+        return cols;
+    }
+
+    public InventorySummary summary() {
+        int usableRows = 0;
+        for (int i = 0; i < size; i++) {
+            if (isUsable(i)) {
+                usableRows++;
+            }
+        }
+        return InventorySummary.builder()
+                .source(source)
+                .rows(size)
+                .usableRows(usableRows)
+                .importedAt(importedAt.toString())
+                .importMillis(importMillis)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.coffee.blending.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySummary {
+    private String source;
+    private int rows;
+    private int usableRows; // stock above BatchColumns.MIN_USABLE_STOCK
+    private String importedAt;
+    private long importMillis;
+}
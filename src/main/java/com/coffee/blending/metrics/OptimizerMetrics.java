@@ -0,0 +1,107 @@
+package com.coffee.blending.metrics;
+
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer instrumentation for the optimization pipeline.
+ * Every meter is tagged with algorithm, mode and market profile so latency can be
+ * traced back to the inputs that cause it (exposed on /actuator/prometheus).
+ */
+@Component
+@RequiredArgsConstructor
+public class OptimizerMetrics {
+
+    public static final String PHASE_PREFILTER = "prefilter";
+    public static final String PHASE_BUILD = "build";
+    public static final String PHASE_SOLVE = "solve";
+    public static final String PHASE_EXTRACT = "extract";
+
+    private final MeterRegistry registry;
+
+    // Gauges need a strong reference to their backing value
+    private final Map<Tags, AtomicInteger[]> modelSizes = new ConcurrentHashMap<>();
+
+    public Scope scope(String algorithm, BlendingTarget.OptimizationMode mode, OptimizerParams params) {
+        return new Scope(Tags.of(
+                "algorithm", algorithm,
+                "mode", mode == null ? "NONE" : mode.name(),
+                "profile", profileName(params)));
+    }
+
+    /**
+     * Name of the built-in market profile the params came from, or CUSTOM.
+     */
+    public static String profileName(OptimizerParams params) {
+        if (OptimizerParams.forMassMarket().equals(params)) {
+            return "MASS";
+        }
+        if (OptimizerParams.forBalancedMarket().equals(params)) {
+            return "BALANCED";
+        }
+        if (OptimizerParams.forSpecialtyMarket().equals(params)) {
+            return "SPECIALTY";
+        }
+        return "CUSTOM";
+    }
+
+    public final class Scope {
+        private final Tags tags;
+
+        private Scope(Tags tags) {
+            this.tags = tags;
+        }
+
+        public void phase(String phase, long nanos) {
+            Timer.builder("blending.optimizer.phase")
+                    .description("Time spent per optimization pipeline phase")
+                    .tags(tags).tag("phase", phase)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void status(String status) {
+            registry.counter("blending.optimizer.status", tags.and("status", status)).increment();
+        }
+
+        public void retries(int count) {
+            DistributionSummary.builder("blending.optimizer.retries")
+                    .description("Smart Retry relaxations per optimize call")
+                    .tags(tags)
+                    .register(registry)
+                    .record(count);
+        }
+
+        public void modelSize(int variables, int constraints, int batches) {
+            AtomicInteger[] values = modelSizes.computeIfAbsent(tags, t -> {
+                AtomicInteger[] v = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+                registry.gauge("blending.model.variables", t, v[0]);
+                registry.gauge("blending.model.constraints", t, v[1]);
+                registry.gauge("blending.model.batches", t, v[2]);
+                return v;
+            });
+            values[0].set(variables);
+            values[1].set(constraints);
+            values[2].set(batches);
+
+            DistributionSummary.builder("blending.optimizer.batches")
+                    .description("Batch count per native solve")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(batches);
+        }
+    }
+}
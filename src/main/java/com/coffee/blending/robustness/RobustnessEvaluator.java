@@ -0,0 +1,223 @@
+package com.coffee.blending.robustness;
+
+import com.coffee.blending.domain.AttributeDistribution;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.RankedRecipe;
+import com.coffee.blending.domain.RobustnessOptions;
+import com.coffee.blending.domain.RobustnessReport;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo robustness of a recipe when the cupping scores of its lots are noisy.
+ *
+ * Each sample perturbs every (lot, attribute) score with Gaussian noise, clipped to the
+ * 0-10 cupping scale, and recomputes the blend profile from the recipe ratios. Samples
+ * are split over the common fork/join pool in fixed ranges, each with its own
+ * SplittableRandom, so a given seed always gives the same report. The sampling loop
+ * touches only primitive arrays allocated up front.
+ *
+ * Cost is samples x recipe lots x attributes; 10,000 samples of a 4-lot recipe take
+ * a few milliseconds, cheap enough to run inline on an optimize request.
+ */
+@Component
+public class RobustnessEvaluator {
+
+    public static final int DEFAULT_SAMPLES = 10_000;
+    public static final int MAX_SAMPLES = 1_000_000;
+
+    private static final int LEAF_SAMPLES = 2048;
+    private static final double SCORE_MIN = 0.0;
+    private static final double SCORE_MAX = 10.0;
+    private static final String[] NAMES = {"acid", "bitter", "sweet", "caffeine"};
+
+    public RobustnessReport evaluate(BlendingResult result, List<CoffeeBatch> batches, BlendingTarget target,
+                                     double flavorTolerance, RobustnessOptions options) {
+        if (result == null || !result.isFeasible() || result.getComposition() == null
+                || result.getComposition().isEmpty()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        int samples = options.getSamples() <= 0 ? DEFAULT_SAMPLES : Math.min(options.getSamples(), MAX_SAMPLES);
+
+        // Recipe lots as primitive columns: ratio[k], score[a][k]
+        Map<String, Double> composition = result.getComposition();
+        int k = composition.size();
+        double[] ratio = new double[k];
+        double[][] score = new double[NAMES.length][k];
+        int found = 0;
+        for (CoffeeBatch b : batches) {
+            Double r = composition.get(b.getId());
+            if (r == null) {
+                continue;
+            }
+            ratio[found] = r;
+            score[0][found] = b.getAcid();
+            score[1][found] = b.getBitter();
+            score[2][found] = b.getSweet();
+            score[3][found] = b.getCaffeine();
+            if (++found == k) {
+                break;
+            }
+        }
+        if (found < k) {
+            throw new IllegalArgumentException("Recipe uses batches that are not in the inventory");
+        }
+
+        // Only attributes the target actually constrains (target >= 0) count towards tolerance
+        double[] targets = {target.getTargetAcid(), target.getTargetBitter(), target.getTargetSweet(),
+                target.getTargetCaffeine()};
+        double[] sd = {options.getAcidSd(), options.getBitterSd(), options.getSweetSd(), options.getCaffeineSd()};
+        int[] active = Arrays.stream(new int[]{0, 1, 2, 3}).filter(a -> targets[a] >= 0).toArray();
+
+        Sampler sampler = new Sampler(ratio, score, sd, targets, active, flavorTolerance, options.getSeed(), samples);
+        long within = ForkJoinPool.commonPool().invoke(sampler.range(0, samples));
+
+        Map<String, AttributeDistribution> attributes = new LinkedHashMap<>();
+        for (int j = 0; j < active.length; j++) {
+            int a = active[j];
+            attributes.put(NAMES[a], distribution(sampler.out[j], targets[a], flavorTolerance));
+        }
+
+        return RobustnessReport.builder()
+                .samples(samples)
+                .flavorTolerance(flavorTolerance)
+                .probabilityWithinTolerance((double) within / samples)
+                .attributes(attributes)
+                .computationTimeMicros((System.nanoTime() - start) / 1000)
+                .build();
+    }
+
+    /**
+     * Evaluates the first {@code topK} candidates (typically sorted by cost) and orders
+     * them by probability of staying within tolerance, then by objective.
+     */
+    public List<RankedRecipe> rank(List<BlendingResult> candidates, List<CoffeeBatch> batches, BlendingTarget target,
+                                   double flavorTolerance, RobustnessOptions options, int topK) {
+        int limit = topK <= 0 ? candidates.size() : Math.min(topK, candidates.size());
+        List<RankedRecipe> ranked = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            BlendingResult candidate = candidates.get(i);
+            ranked.add(RankedRecipe.builder()
+                    .candidateIndex(i)
+                    .result(candidate)
+                    .robustness(evaluate(candidate, batches, target, flavorTolerance, options))
+                    .build());
+        }
+        ranked.sort(Comparator
+                .comparingDouble((RankedRecipe r) -> r.getRobustness() == null ? -1.0
+                        : r.getRobustness().getProbabilityWithinTolerance())
+                .reversed()
+                .thenComparingDouble(r -> r.getResult().getObjectiveValue()));
+        return ranked;
+    }
+
+    private static AttributeDistribution distribution(double[] values, double target, double tolerance) {
+        int n = values.length;
+        double sum = 0;
+        int within = 0;
+        for (double v : values) {
+            sum += v;
+            if (Math.abs(v - target) <= tolerance) {
+                within++;
+            }
+        }
+        double mean = sum / n;
+        double sq = 0;
+        for (double v : values) {
+            sq += (v - mean) * (v - mean);
+        }
+        Arrays.sort(values);
+        return AttributeDistribution.builder()
+                .target(target)
+                .mean(mean)
+                .stdDev(Math.sqrt(sq / Math.max(1, n - 1)))
+                .p05(values[(int) (0.05 * (n - 1))])
+                .p50(values[(int) (0.50 * (n - 1))])
+                .p95(values[(int) (0.95 * (n - 1))])
+                .probabilityWithinTolerance((double) within / n)
+                .build();
+    }
+
+    /**
+     * Shared read-only inputs and the output columns ({@code out[activeAttr][sample]}).
+     */
+    private static final class Sampler {
+        final double[] ratio;
+        final double[][] score;
+        final double[] sd;
+        final double[] targets;
+        final int[] active;
+        final double tolerance;
+        final long seed;
+        final double[][] out;
+
+        Sampler(double[] ratio, double[][] score, double[] sd, double[] targets, int[] active, double tolerance,
+                long seed, int samples) {
+            this.ratio = ratio;
+            this.score = score;
+            this.sd = sd;
+            this.targets = targets;
+            this.active = active;
+            this.tolerance = tolerance;
+            this.seed = seed;
+            this.out = new double[active.length][samples];
+        }
+
+        RecursiveTask<Long> range(int from, int to) {
+            return new RecursiveTask<>() {
+                @Override
+                protected Long compute() {
+                    if (to - from <= LEAF_SAMPLES) {
+                        return sample(from, to);
+                    }
+                    int mid = (from + to) >>> 1;
+                    RecursiveTask<Long> left = range(from, mid);
+                    left.fork();
+                    long right = range(mid, to).invoke();
+                    return left.join() + right;
+                }
+            };
+        }
+
+        /**
+         * Fills samples [from, to) and returns how many kept every active attribute in tolerance.
+         */
+        long sample(int from, int to) {
+            // Seed per leaf start, so the result does not depend on which thread runs the leaf
+            SplittableRandom rnd = new SplittableRandom(seed ^ (from * 0x9E3779B97F4A7C15L));
+            int k = ratio.length;
+            long within = 0;
+            for (int s = from; s < to; s++) {
+                boolean ok = true;
+                for (int j = 0; j < active.length; j++) {
+                    int a = active[j];
+                    double[] base = score[a];
+                    double sigma = sd[a];
+                    double value = 0;
+                    for (int i = 0; i < k; i++) {
+                        double v = sigma > 0 ? base[i] + sigma * rnd.nextGaussian() : base[i];
+                        value += ratio[i] * Math.max(SCORE_MIN, Math.min(SCORE_MAX, v));
+                    }
+                    out[j][s] = value;
+                    ok &= Math.abs(value - targets[a]) <= tolerance;
+                }
+                if (ok) {
+                    within++;
+                }
+            }
+            return within;
+        }
+    }
+}
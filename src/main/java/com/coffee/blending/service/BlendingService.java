@@ -1,16 +1,33 @@
 package com.coffee.blending.service;
 
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendEvaluation;
+import com.coffee.blending.domain.BatchSensitivity;
 import com.coffee.blending.domain.BlendingResult;
 import com.coffee.blending.domain.BlendingTarget;
 import com.coffee.blending.domain.CoffeeBatch;
 import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RankedRecipe;
+import com.coffee.blending.domain.RobustnessOptions;
+import com.coffee.blending.domain.SensitivityReport;
+import com.coffee.blending.domain.WhatIfResult;
 import com.coffee.blending.engine.BlendingOptimizer;
 import com.coffee.blending.engine.GoogleOrToolsOptimizer;
 import com.coffee.blending.engine.HybridOptimizer;
+import com.coffee.blending.evaluation.BlendEvaluator;
+import com.coffee.blending.robustness.RobustnessEvaluator;
+import com.coffee.blending.store.RecipeStore;
+import com.coffee.blending.tenant.TenantScheduler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -18,13 +35,314 @@ public class BlendingService {
 
     private final GoogleOrToolsOptimizer googleOptimizer;
     private final HybridOptimizer hybridOptimizer;
+    private final SolveCache solveCache;
+    private final RecipeStore recipeStore;
+    private final RobustnessEvaluator robustnessEvaluator;
+    private final TenantScheduler tenantScheduler;
+    private final BlendEvaluator blendEvaluator;
 
     public BlendingResult optimizeBlend(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params, String algorithm) {
+        return optimizeBlend(batches, target, params, algorithm, false);
+    }
+
+    /**
+     * With {@code sensitivity} set, the result carries LP duals/ranges and a resultId
+     * that the what-if endpoint can query without re-solving.
+     */
+    public BlendingResult optimizeBlend(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params,
+                                        String algorithm, boolean sensitivity) {
+        return optimizeBlend(TenantScheduler.DEFAULT_TENANT, batches, target, params, algorithm, sensitivity);
+    }
+
+    /**
+     * Solve on behalf of a tenant: the solve waits for the tenant's fair share of solver
+     * slots, and store reuse and result ids stay within the tenant.
+     */
+    public BlendingResult optimizeBlend(String tenant, List<CoffeeBatch> batches, BlendingTarget target,
+                                        OptimizerParams params, String algorithm, boolean sensitivity) {
+        validate(batches, target);
+        return solveBlend(tenant, BatchColumns.of(batches), batches, target, params, algorithm, sensitivity);
+    }
+
+    /**
+     * Columnar variant for the streaming upload and the live inventory: the engines read the columns directly, and
+     * lot objects are only built when a sensitivity report (and its what-if cache) is asked for.
+     */
+    public BlendingResult optimizeBlend(String tenant, BatchColumns batches, BlendingTarget target,
+                                        OptimizerParams params, String algorithm, boolean sensitivity) {
+        validate(batches, target);
+        return solveBlend(tenant, batches, null, target, params, algorithm, sensitivity);
+    }
+
+    /**
+     * {@code batches} is the list form of {@code columns} when the caller has one, null otherwise.
+     */
+    private BlendingResult solveBlend(String tenant, BatchColumns columns, List<CoffeeBatch> batches,
+                                      BlendingTarget target, OptimizerParams params, String algorithm,
+                                      boolean sensitivity) {
         // Fallback to defaults if params are missing
         if (params == null) {
             params = OptimizerParams.defaults();
         }
-        
+
+        BlendingOptimizer optimizer = selectOptimizer(algorithm);
+
+        // Identical request already solved to optimality: serve it from the recipe store
+        String engine = optimizer == hybridOptimizer ? "HYBRID" : "DEFAULT";
+        String fingerprint = !recipeStore.isEnabled() ? null
+                : batches != null ? recipeStore.fingerprint(tenant, batches, target, params, engine)
+                : recipeStore.fingerprint(tenant, columns, target, params, engine);
+        BlendingResult stored = fingerprint == null ? null : recipeStore.findReusable(tenant, fingerprint);
+        if (stored != null && !sensitivity) {
+            stored.setFromStore(true);
+            return stored;
+        }
+
+        OptimizerParams solveParams = params;
+        return tenantScheduler.run(tenant, () -> {
+            BlendingResult result = stored;
+            if (result != null) {
+                result.setFromStore(true);
+            } else {
+                result = optimizer.optimize(columns, target, solveParams);
+                if (fingerprint != null) {
+                    result.setFingerprint(fingerprint);
+                    recipeStore.append(tenant, fingerprint, result);
+                }
+            }
+            if (sensitivity) {
+                attachSensitivity(tenant, optimizer, new CachedSolve(batches != null ? batches : columns.toBatches(),
+                        target, solveParams, algorithm, result));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Best recipe with up to count - 1 backups from one solver session (not served from or
+     * written to the recipe store). Backups come back in the result's alternatives list.
+     */
+    public BlendingResult optimizeAlternatives(String tenant, List<CoffeeBatch> batches, BlendingTarget target,
+                                               OptimizerParams params, String algorithm, boolean sensitivity,
+                                               AlternativesOptions options) {
+        validate(batches, target);
+        return solveAlternatives(tenant, BatchColumns.of(batches), batches, target, params, algorithm, sensitivity,
+                options);
+    }
+
+    public BlendingResult optimizeAlternatives(String tenant, BatchColumns batches, BlendingTarget target,
+                                               OptimizerParams params, String algorithm, boolean sensitivity,
+                                               AlternativesOptions options) {
+        validate(batches, target);
+        return solveAlternatives(tenant, batches, null, target, params, algorithm, sensitivity, options);
+    }
+
+    private BlendingResult solveAlternatives(String tenant, BatchColumns columns, List<CoffeeBatch> batches,
+                                             BlendingTarget target, OptimizerParams params, String algorithm,
+                                             boolean sensitivity, AlternativesOptions options) {
+        if (params == null) {
+            params = OptimizerParams.defaults();
+        }
+        if (options.getCount() < 0 || options.getCount() > AlternativesOptions.MAX_COUNT) {
+            throw new IllegalArgumentException("alternatives.count must be between 1 and " + AlternativesOptions.MAX_COUNT);
+        }
+        if (options.getMinDiversity() < 0 || options.getTimeBudgetMs() < 0) {
+            throw new IllegalArgumentException("alternatives.minDiversity and timeBudgetMs cannot be negative");
+        }
+        if (options.budgetMs(params) <= 0) {
+            throw new IllegalArgumentException("alternatives time budget must be positive");
+        }
+
+        BlendingOptimizer optimizer = selectOptimizer(algorithm);
+        OptimizerParams solveParams = params;
+        return tenantScheduler.run(tenant, () -> {
+            List<BlendingResult> found = optimizer.optimizeAlternatives(columns, target, solveParams, options);
+            if (found.isEmpty()) {
+                found = List.of(optimizer.optimize(columns, target, solveParams));
+            }
+            BlendingResult best = found.get(0);
+            best.setAlternatives(new ArrayList<>(found.subList(1, found.size())));
+            if (sensitivity) {
+                attachSensitivity(tenant, optimizer, new CachedSolve(batches != null ? batches : columns.toBatches(),
+                        target, solveParams, algorithm, best));
+            }
+            return best;
+        });
+    }
+
+    /**
+     * Warm-started re-solve of a known recipe against changed inventory, with sensitivity
+     * attached so the next change can be screened against it. Used by standing subscriptions.
+     */
+    public BlendingResult reoptimize(String tenant, List<CoffeeBatch> batches, BlendingTarget target,
+                                     OptimizerParams params, String algorithm, BlendingResult previous) {
+        OptimizerParams solveParams = params == null ? OptimizerParams.defaults() : params;
+        validate(batches, target);
+
+        BlendingOptimizer optimizer = selectOptimizer(algorithm);
+        return tenantScheduler.run(tenant, () -> {
+            BlendingResult result = optimizer.optimize(batches, target, solveParams, previous);
+            attachSensitivity(tenant, optimizer, new CachedSolve(batches, target, solveParams, algorithm, result));
+            return result;
+        });
+    }
+
+    /**
+     * Answers "what if batch X changes price/stock" from the cached ranges when the change
+     * stays inside them, otherwise re-solves warm-started from the cached recipe.
+     */
+    public WhatIfResult whatIf(String tenant, String resultId, String batchId, double priceDelta, double stockDelta) {
+        CachedSolve cached = solveCache.get(tenant, resultId);
+        if (cached == null) {
+            throw new IllegalArgumentException("Unknown or expired result id: " + resultId);
+        }
+
+        CoffeeBatch batch = null;
+        for (CoffeeBatch b : cached.getBatches()) {
+            if (b.getId().equals(batchId)) {
+                batch = b;
+                break;
+            }
+        }
+        if (batch == null) {
+            throw new IllegalArgumentException("Batch not found in cached solve: " + batchId);
+        }
+        if (batch.getPrice() + priceDelta < 0 || batch.getAvailableStock() + stockDelta < 0) {
+            throw new IllegalArgumentException("Price and stock cannot go negative");
+        }
+
+        BlendingResult base = cached.getResult();
+        SensitivityReport report = base.getSensitivity();
+        BatchSensitivity entry = report == null ? null : report.find(batchId);
+
+        // Ranges are one-at-a-time, so only single perturbations are answered instantly
+        boolean single = priceDelta == 0 || stockDelta == 0;
+        if (entry != null && single
+                && entry.acceptsPriceDelta(priceDelta)
+                && entry.acceptsStock(batch.getAvailableStock() + stockDelta)) {
+            BlendingResult answer = base.toBuilder()
+                    .composition(new HashMap<>(base.getComposition()))
+                    .weightDistribution(new HashMap<>(base.getWeightDistribution()))
+                    .predictedPrice(base.getPredictedPrice() + entry.getRatio() * priceDelta)
+                    .objectiveValue(base.getObjectiveValue() + entry.getRatio() * priceDelta * report.getObjectiveScale())
+                    .computationTimeMs(0)
+                    .build();
+            return WhatIfResult.builder()
+                    .resolved(false)
+                    .explanation("Within sensitivity range: recipe unchanged.")
+                    .result(answer)
+                    .build();
+        }
+
+        List<CoffeeBatch> perturbed = new ArrayList<>(cached.getBatches().size());
+        for (CoffeeBatch b : cached.getBatches()) {
+            if (b == batch) {
+                perturbed.add(b.toBuilder()
+                        .price(b.getPrice() + priceDelta)
+                        .availableStock(b.getAvailableStock() + stockDelta)
+                        .build());
+            } else {
+                perturbed.add(b);
+            }
+        }
+
+        BlendingOptimizer optimizer = selectOptimizer(cached.getAlgorithm());
+        BlendingResult result = tenantScheduler.run(tenant, () -> {
+            BlendingResult resolved = optimizer.optimize(perturbed, cached.getTarget(), cached.getParams(), base);
+            attachSensitivity(tenant, optimizer, new CachedSolve(perturbed, cached.getTarget(), cached.getParams(),
+                    cached.getAlgorithm(), resolved));
+            return resolved;
+        });
+
+        return WhatIfResult.builder()
+                .resolved(true)
+                .explanation("Outside sensitivity range: re-solved from the previous recipe.")
+                .result(result)
+                .build();
+    }
+
+    /**
+     * Probability that the recipe stays within flavorTolerance when cupping scores are noisy.
+     */
+    public void attachRobustness(BlendingResult result, List<CoffeeBatch> batches, BlendingTarget target,
+                                 OptimizerParams params, RobustnessOptions options) {
+        double tolerance = (params == null ? OptimizerParams.defaults() : params).getFlavorTolerance();
+        result.setRobustness(robustnessEvaluator.evaluate(result, batches, target, tolerance, options));
+    }
+
+    /**
+     * Columnar variant: only the recipe's own lots are turned into objects.
+     */
+    public void attachRobustness(BlendingResult result, BatchColumns batches, BlendingTarget target,
+                                 OptimizerParams params, RobustnessOptions options) {
+        List<CoffeeBatch> recipeLots = result.getComposition() == null ? List.of()
+                : batches.toBatches(result.getComposition().keySet());
+        attachRobustness(result, recipeLots, target, params, options);
+    }
+
+    public List<RankedRecipe> rankByRobustness(List<BlendingResult> candidates, List<CoffeeBatch> batches,
+                                               BlendingTarget target, OptimizerParams params,
+                                               RobustnessOptions options, int topK) {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("Candidate list cannot be empty");
+        }
+        validate(batches, target);
+        double tolerance = (params == null ? OptimizerParams.defaults() : params).getFlavorTolerance();
+        return robustnessEvaluator.rank(candidates, batches, target, tolerance,
+                options == null ? new RobustnessOptions() : options, topK);
+    }
+
+    /**
+     * Columnar variant: only lots named by some candidate are turned into objects.
+     */
+    public List<RankedRecipe> rankByRobustness(List<BlendingResult> candidates, BatchColumns batches,
+                                               BlendingTarget target, OptimizerParams params,
+                                               RobustnessOptions options, int topK) {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("Candidate list cannot be empty");
+        }
+        validate(batches, target);
+        Set<String> used = new LinkedHashSet<>();
+        for (BlendingResult candidate : candidates) {
+            if (candidate.getComposition() != null) {
+                used.addAll(candidate.getComposition().keySet());
+            }
+        }
+        double tolerance = (params == null ? OptimizerParams.defaults() : params).getFlavorTolerance();
+        return robustnessEvaluator.rank(candidates, batches.toBatches(used), target, tolerance,
+                options == null ? new RobustnessOptions() : options, topK);
+    }
+
+    /**
+     * Scores candidate compositions without solving (no solver slot is taken).
+     */
+    public BlendEvaluation evaluate(List<Map<String, Double>> candidates, BatchColumns columns,
+                                    BlendingTarget target) {
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("Candidate list cannot be empty");
+        }
+        if (candidates.size() > BlendEvaluator.MAX_CANDIDATES) {
+            throw new IllegalArgumentException("At most " + BlendEvaluator.MAX_CANDIDATES + " candidates per call");
+        }
+        if (columns == null || columns.size() == 0) {
+            throw new IllegalArgumentException("Batch list cannot be empty");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        return blendEvaluator.evaluate(candidates, columns, target);
+    }
+
+    private void attachSensitivity(String tenant, BlendingOptimizer optimizer, CachedSolve solve) {
+        BlendingResult result = solve.getResult();
+        if (!result.isFeasible()) {
+            return;
+        }
+        result.setSensitivity(optimizer.analyzeSensitivity(solve.getBatches(), solve.getTarget(), solve.getParams(), result));
+        result.setResultId(solveCache.put(tenant, solve));
+    }
+
+    private void validate(List<CoffeeBatch> batches, BlendingTarget target) {
         // Basic Validation
         if (batches == null || batches.isEmpty()) {
             throw new IllegalArgumentException("Batch list cannot be empty");
@@ -32,15 +350,22 @@ public class BlendingService {
         if (target == null) {
             throw new IllegalArgumentException("Target cannot be null");
         }
+    }
 
+    private void validate(BatchColumns batches, BlendingTarget target) {
+        if (batches == null || batches.size() == 0) {
+            throw new IllegalArgumentException("Batch list cannot be empty");
+        }
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+    }
+
+    private BlendingOptimizer selectOptimizer(String algorithm) {
         // Algorithm Selection
-        BlendingOptimizer optimizer;
         if ("HYBRID".equalsIgnoreCase(algorithm)) {
-            optimizer = hybridOptimizer;
-        } else {
-            optimizer = googleOptimizer;
+            return hybridOptimizer;
         }
-
-        return optimizer.optimize(batches, target, params);
+        return googleOptimizer;
     }
 }
@@ -0,0 +1,124 @@
+package com.coffee.blending.service;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.tenant.TenantQuotaExceededException;
+import com.coffee.blending.tenant.TenantScheduler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Solves many targets against one inventory and hands each result to a sink as soon
+ * as it finishes. At most {@code parallelism} solves are in flight, so memory stays
+ * flat no matter how many targets the run has.
+ */
+@Slf4j
+@Service
+public class BulkOptimizationService {
+
+    public interface ResultSink {
+        void accept(int index, BlendingResult result) throws Exception;
+    }
+
+    private final BlendingService blendingService;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    public BulkOptimizationService(BlendingService blendingService,
+                                   @Value("${blending.bulk.parallelism:0}") int parallelism) {
+        this.blendingService = blendingService;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.executor = Executors.newFixedThreadPool(this.parallelism);
+    }
+
+    public void optimizeAll(List<CoffeeBatch> batches, List<BlendingTarget> targets, OptimizerParams params,
+                            String algorithm, ResultSink sink) throws Exception {
+        optimizeAll(TenantScheduler.DEFAULT_TENANT, batches, targets, params, algorithm, sink);
+    }
+
+    /**
+     * Runs every target and calls the sink on the caller's thread, in completion order.
+     * Each solve takes its turn in the tenant's share of solver slots.
+     */
+    public void optimizeAll(String tenant, List<CoffeeBatch> batches, List<BlendingTarget> targets,
+                            OptimizerParams params, String algorithm, ResultSink sink) throws Exception {
+        optimizeAll(tenant, BatchColumns.of(batches), targets, params, algorithm, sink);
+    }
+
+    /**
+     * Columnar variant: every solve reads the same columns, nothing is copied per target.
+     */
+    public void optimizeAll(String tenant, BatchColumns batches, List<BlendingTarget> targets,
+                            OptimizerParams params, String algorithm, ResultSink sink) throws Exception {
+        validate(targets, params);
+
+        // If the sink throws (client went away) we stop submitting; the few
+        // solves still in flight finish on their own and are dropped.
+        CompletionService<Indexed> completion = new ExecutorCompletionService<>(executor);
+        int submitted = 0;
+        int inFlight = 0;
+        while (submitted < targets.size() || inFlight > 0) {
+            while (submitted < targets.size() && inFlight < parallelism) {
+                int index = submitted++;
+                BlendingTarget target = targets.get(index);
+                completion.submit(() -> new Indexed(index, solveOne(tenant, batches, target, params, algorithm)));
+                inFlight++;
+            }
+            Indexed done = completion.take().get();
+            inFlight--;
+            sink.accept(done.index, done.result);
+        }
+    }
+
+    /**
+     * Checks the whole run up front. Callers that stream the results call this before the
+     * response is committed, so a bad request gets an error status instead of a 200 with a broken body.
+     */
+    public void validate(List<BlendingTarget> targets, OptimizerParams params) {
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("Target list cannot be empty");
+        }
+        for (int i = 0; i < targets.size(); i++) {
+            BlendingTarget target = targets.get(i);
+            if (target == null) {
+                throw new IllegalArgumentException("Target #" + i + " cannot be null");
+            }
+            if (!(target.getTotalOutputKg() > 0) || Double.isInfinite(target.getTotalOutputKg())) {
+                throw new IllegalArgumentException("Target #" + i + " needs a positive totalOutputKg");
+            }
+        }
+        if (params != null && (!(params.getSolverTimeoutSec() >= 0) || Double.isInfinite(params.getSolverTimeoutSec()))) {
+            throw new IllegalArgumentException("params.solverTimeoutSec must be a non-negative number");
+        }
+    }
+
+    private BlendingResult solveOne(String tenant, BatchColumns batches, BlendingTarget target,
+                                    OptimizerParams params, String algorithm) {
+        try {
+            return blendingService.optimizeBlend(tenant, batches, target, params, algorithm, false);
+        } catch (TenantQuotaExceededException e) {
+            return BlendingResult.builder().feasible(false).status("REJECTED: " + e.getMessage()).build();
+        } catch (IllegalArgumentException e) {
+            return BlendingResult.builder().feasible(false).status("INVALID: " + e.getMessage()).build();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Indexed(int index, BlendingResult result) {
+    }
+}
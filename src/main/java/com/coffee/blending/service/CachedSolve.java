@@ -0,0 +1,23 @@
+package com.coffee.blending.service;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Everything needed to answer a what-if against a past solve, or to re-solve it.
+ */
+@Data
+@AllArgsConstructor
+public class CachedSolve {
+    private List<CoffeeBatch> batches;
+    private BlendingTarget target;
+    private OptimizerParams params;
+    private String algorithm;
+    private BlendingResult result;
+}
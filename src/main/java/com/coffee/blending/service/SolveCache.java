@@ -0,0 +1,42 @@
+package com.coffee.blending.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded LRU of recent solves that carry a sensitivity report, one per tenant, so a
+ * tenant neither sees another's result ids nor evicts its entries.
+ */
+@Component
+public class SolveCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    private final Map<String, Map<String, CachedSolve>> tenants = new ConcurrentHashMap<>();
+
+    public String put(String tenant, CachedSolve solve) {
+        String id = UUID.randomUUID().toString();
+        entries(tenant).put(id, solve);
+        return id;
+    }
+
+    public CachedSolve get(String tenant, String id) {
+        Map<String, CachedSolve> entries = id == null ? null : tenants.get(tenant);
+        return entries == null ? null : entries.get(id);
+    }
+
+    private Map<String, CachedSolve> entries(String tenant) {
+        return tenants.computeIfAbsent(tenant, t -> Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedSolve> eldest) {
+                        return size() > MAX_ENTRIES;
+                    }
+                }));
+    }
+}
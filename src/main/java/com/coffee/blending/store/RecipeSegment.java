@@ -0,0 +1,148 @@
+package com.coffee.blending.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed-capacity, memory-mapped, append-only segment file.
+ *
+ * Record layout (big-endian):
+ *   int magic | int payloadLength | int crc32 | long timestamp | 32 bytes fingerprint | payload
+ * The magic is written last and acts as the commit marker; on recovery the first
+ * record with a missing magic or a bad CRC marks the end of the segment. Every append
+ * (and recovery) also clears the magic right after the last record, so the scan stops
+ * there even if bytes of an older, longer history are still behind it.
+ */
+final class RecipeSegment {
+
+    static final int HEADER_BYTES = 52;
+    static final int FINGERPRINT_BYTES = 32;
+    private static final int MAGIC = 0xB1E4D5EC;
+
+    interface RecordVisitor {
+        void visit(int offset, Record record);
+    }
+
+    record Record(long timestamp, byte[] fingerprint, byte[] payload) {
+        int length() {
+            return HEADER_BYTES + payload.length;
+        }
+    }
+
+    final int id;
+    final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buf;
+    private int writePosition;
+
+    private RecipeSegment(int id, Path path, FileChannel channel, MappedByteBuffer buf) {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.buf = buf;
+    }
+
+    static RecipeSegment open(int id, Path path, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.max(channel.size(), capacity);
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new RecipeSegment(id, path, channel, buf);
+    }
+
+    int capacity() {
+        return buf.capacity();
+    }
+
+    int writePosition() {
+        return writePosition;
+    }
+
+    /**
+     * Scan committed records from the start, stopping at the first torn or missing one.
+     * Only the magic at that point is cleared; the rest of the tail is left alone, since
+     * appends keep a cleared magic after the last record and stale records behind it are
+     * never reached by a scan.
+     */
+    void recover(RecordVisitor visitor) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= buf.capacity() && buf.getInt(offset) == MAGIC) {
+            Record record = readAt(offset);
+            if (record == null) {
+                break;
+            }
+            visitor.visit(offset, record);
+            offset += record.length();
+        }
+        writePosition = offset;
+        terminate(offset);
+    }
+
+    /**
+     * Returns the record offset, or -1 when the segment has no room left.
+     */
+    int append(Record record) {
+        int offset = writePosition;
+        if (offset + record.length() > buf.capacity()) {
+            return -1;
+        }
+        buf.putInt(offset + 4, record.payload().length);
+        buf.putInt(offset + 8, crc(record));
+        buf.putLong(offset + 12, record.timestamp());
+        buf.put(offset + 20, record.fingerprint());
+        buf.put(offset + HEADER_BYTES, record.payload());
+        // End marker first, so the commit below can never expose a stale record behind this one
+        terminate(offset + record.length());
+        buf.putInt(offset, MAGIC);
+        writePosition = offset + record.length();
+        return offset;
+    }
+
+    Record read(int offset) {
+        return buf.getInt(offset) == MAGIC ? readAt(offset) : null;
+    }
+
+    void force() {
+        buf.force();
+    }
+
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void terminate(int offset) {
+        if (offset + 4 <= buf.capacity() && buf.getInt(offset) != 0) {
+            buf.putInt(offset, 0);
+        }
+    }
+
+    private Record readAt(int offset) {
+        int length = buf.getInt(offset + 4);
+        if (length < 0 || offset + HEADER_BYTES + length > buf.capacity()) {
+            return null;
+        }
+        long timestamp = buf.getLong(offset + 12);
+        byte[] fingerprint = new byte[FINGERPRINT_BYTES];
+        buf.get(offset + 20, fingerprint);
+        byte[] payload = new byte[length];
+        buf.get(offset + HEADER_BYTES, payload);
+
+        Record record = new Record(timestamp, fingerprint, payload);
+        return crc(record) == buf.getInt(offset + 8) ? record : null;
+    }
+
+    private static int crc(Record record) {
+        CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (record.timestamp() >>> shift));
+        }
+        crc.update(record.fingerprint());
+        crc.update(record.payload());
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,558 @@
+package com.coffee.blending.store;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.engine.SolverTuning;
+import com.coffee.blending.tenant.TenantScheduler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only, memory-mapped store of computed recipes.
+ *
+ * Every solve is appended to the active segment file together with a SHA-256
+ * fingerprint of its request (algorithm, target, params, batches). An in-memory
+ * index by fingerprint, batch ID and time is rebuilt from the segments on startup,
+ * so identical requests are served from disk across restarts and past recipes can
+ * be audited without re-solving.
+ *
+ * Writes are crash-safe per record (see {@link RecipeSegment}); a torn tail is
+ * dropped on recovery. Re-solving the same fingerprint supersedes the old record,
+ * and compaction copies the live records out of sealed segments and deletes them.
+ *
+ * Records of non-default tenants carry their tenant in the payload; lookups only
+ * return the caller's own records. Records written before tenants existed belong
+ * to the default tenant.
+ */
+@Slf4j
+@Component
+public class RecipeStore {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TENANT_FIELD = "tenant";
+
+    record Location(int segment, int offset, int length, long timestamp, String fingerprint, String tenant,
+                    Set<String> batchIds) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    // Formulation/SCIP profile id; null for the stock engine, whose keys predate it
+    private final String engineConfig;
+    private final boolean syncOnWrite;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<Integer, RecipeSegment> segments = new TreeMap<>();
+    private final Map<String, Location> byFingerprint = new HashMap<>();
+    private final Map<String, List<Location>> byBatch = new HashMap<>();
+    private final TreeMap<Long, List<Location>> byTime = new TreeMap<>();
+    private RecipeSegment active;
+    private int nextSegmentId;
+
+    public RecipeStore(ObjectMapper objectMapper,
+                       SolverTuning tuning,
+                       @Value("${blending.store.enabled:false}") boolean enabled,
+                       @Value("${blending.store.dir:data/recipes}") String dir,
+                       @Value("${blending.store.segment-mb:64}") int segmentMb,
+                       @Value("${blending.store.sync-on-write:false}") boolean syncOnWrite) throws IOException {
+        this.objectMapper = objectMapper;
+        this.engineConfig = tuning.getConfigId();
+        this.enabled = enabled;
+        this.dir = Path.of(dir).toAbsolutePath().normalize();
+        this.segmentBytes = segmentMb * 1024 * 1024;
+        this.syncOnWrite = syncOnWrite;
+        if (enabled) {
+            recover();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * SHA-256 over the canonical JSON of the request. Batch order is kept, since it can
+     * decide between equally cheap recipes.
+     */
+    public String fingerprint(List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params,
+                              String algorithm) {
+        return fingerprint(TenantScheduler.DEFAULT_TENANT, batches, target, params, algorithm);
+    }
+
+    /**
+     * Tenant-scoped fingerprint: other tenants never reuse each other's records. The default
+     * tenant keeps the fingerprints written before tenants existed. A non-standard
+     * formulation or a SCIP profile is part of the key, since either can break ties differently.
+     */
+    public String fingerprint(String tenant, List<CoffeeBatch> batches, BlendingTarget target, OptimizerParams params,
+                              String algorithm) {
+        try {
+            List<Object> key = keyPrefix(tenant, target, params, algorithm);
+            key.add(batches);
+            byte[] canonical = objectMapper.writeValueAsBytes(key);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Same key as the list form, streamed into the digest one lot at a time so the
+     * inventory is never held as objects or as one JSON buffer.
+     */
+    public String fingerprint(String tenant, BatchColumns batches, BlendingTarget target, OptimizerParams params,
+                              String algorithm) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (JsonGenerator out = objectMapper.createGenerator(
+                    new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                out.writeStartArray();
+                for (Object part : keyPrefix(tenant, target, params, algorithm)) {
+                    out.writeObject(part);
+                }
+                out.writeStartArray();
+                for (int i = 0; i < batches.size(); i++) {
+                    out.writeObject(batches.toBatch(i));
+                }
+                out.writeEndArray();
+                out.writeEndArray();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Object> keyPrefix(String tenant, BlendingTarget target, OptimizerParams params, String algorithm) {
+        List<Object> key = new ArrayList<>(6);
+        if (!TenantScheduler.DEFAULT_TENANT.equals(tenant)) {
+            key.add(tenant);
+        }
+        if (engineConfig != null) {
+            key.add(engineConfig);
+        }
+        key.addAll(Arrays.asList(algorithm, target, params));
+        return key;
+    }
+
+    /**
+     * A stored result that can stand in for a fresh solve. Only proven optima are reused;
+     * time-limited FEASIBLE answers might improve on a re-run.
+     */
+    public BlendingResult findReusable(String tenant, String fingerprint) {
+        return find(tenant, fingerprint)
+                .map(StoredRecipe::getResult)
+                .filter(r -> "OPTIMAL".equals(r.getStatus()))
+                .orElse(null);
+    }
+
+    /**
+     * The record, if it belongs to the tenant.
+     */
+    public Optional<StoredRecipe> find(String tenant, String fingerprint) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            Location loc = byFingerprint.get(fingerprint);
+            return loc == null || !loc.tenant().equals(tenant) ? Optional.empty() : Optional.of(load(loc));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The tenant's recipes that use the batch, newest first.
+     */
+    public List<StoredRecipe> findByBatch(String tenant, String batchId, int limit) {
+        if (!enabled) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Location> hits = byBatch.getOrDefault(batchId, List.of());
+            List<StoredRecipe> out = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = hits.size() - 1; i >= 0 && out.size() < limit; i--) {
+                if (hits.get(i).tenant().equals(tenant)) {
+                    out.add(load(hits.get(i)));
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The tenant's recipes stored in [fromMillis, toMillis], newest first.
+     */
+    public List<StoredRecipe> findBetween(String tenant, long fromMillis, long toMillis, int limit) {
+        if (!enabled || fromMillis > toMillis) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<StoredRecipe> out = new ArrayList<>();
+            for (List<Location> bucket : byTime.subMap(fromMillis, true, toMillis, true).descendingMap().values()) {
+                for (int i = bucket.size() - 1; i >= 0 && out.size() < limit; i--) {
+                    if (bucket.get(i).tenant().equals(tenant)) {
+                        out.add(load(bucket.get(i)));
+                    }
+                }
+                if (out.size() >= limit) {
+                    break;
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void append(String fingerprint, BlendingResult result) {
+        append(TenantScheduler.DEFAULT_TENANT, fingerprint, result);
+    }
+
+    public void append(String tenant, String fingerprint, BlendingResult result) {
+        if (!enabled) {
+            return;
+        }
+        // Session-only fields are not part of the recipe
+        BlendingResult stored = result.toBuilder().resultId(null).sensitivity(null).fromStore(false).build();
+        RecipeSegment.Record record;
+        try {
+            ObjectNode payload = objectMapper.valueToTree(stored);
+            if (!TenantScheduler.DEFAULT_TENANT.equals(tenant)) {
+                payload.put(TENANT_FIELD, tenant);
+            }
+            record = new RecipeSegment.Record(System.currentTimeMillis(),
+                    HexFormat.of().parseHex(fingerprint), objectMapper.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize recipe {}: {}", fingerprint, e.getMessage());
+            return;
+        }
+        if (record.length() > segmentBytes) {
+            log.warn("Recipe {} ({} bytes) exceeds the segment size, not stored", fingerprint, record.length());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            int offset = active.append(record);
+            if (offset < 0) {
+                roll();
+                offset = active.append(record);
+            }
+            if (syncOnWrite) {
+                active.force();
+            }
+            index(new Location(active.id, offset, record.length(), record.timestamp(), fingerprint, tenant,
+                    batchIds(stored)));
+        } catch (IOException e) {
+            log.error("Recipe store append failed: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copy live records out of every sealed segment and delete them. The copies are
+     * forced to disk before anything is deleted, so a crash in between only leaves
+     * duplicates, which recovery resolves by timestamp.
+     */
+    public RecipeStoreStats compact() throws IOException {
+        if (!enabled) {
+            return stats();
+        }
+        lock.writeLock().lock();
+        try {
+            List<RecipeSegment> sealed = new ArrayList<>(segments.values());
+            sealed.remove(active);
+            if (sealed.isEmpty()) {
+                return stats();
+            }
+            Set<Integer> sealedIds = new HashSet<>();
+            sealed.forEach(s -> sealedIds.add(s.id));
+
+            List<Location> live = byFingerprint.values().stream()
+                    .filter(l -> sealedIds.contains(l.segment()))
+                    .sorted(Comparator.comparingInt(Location::segment).thenComparingInt(Location::offset))
+                    .toList();
+
+            List<RecipeSegment> outputs = new ArrayList<>();
+            List<Location[]> moves = new ArrayList<>(live.size());
+            RecipeSegment out = null;
+            for (Location loc : live) {
+                RecipeSegment.Record record = segments.get(loc.segment()).read(loc.offset());
+                int offset = out == null ? -1 : out.append(record);
+                if (offset < 0) {
+                    out = openSegment(nextSegmentId++);
+                    outputs.add(out);
+                    offset = out.append(record);
+                }
+                moves.add(new Location[]{loc, new Location(out.id, offset, loc.length(), loc.timestamp(),
+                        loc.fingerprint(), loc.tenant(), loc.batchIds())});
+            }
+            for (RecipeSegment s : outputs) {
+                s.force();
+                segments.put(s.id, s);
+            }
+
+            for (Location[] move : moves) {
+                unlink(move[0]);
+                link(move[1]);
+            }
+            for (RecipeSegment s : sealed) {
+                segments.remove(s.id);
+                s.close();
+                Files.deleteIfExists(s.path);
+            }
+            log.info("Compacted {} segments into {} ({} live recipes)", sealed.size(), outputs.size(), live.size());
+            return stats();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public RecipeStoreStats stats() {
+        if (!enabled) {
+            return RecipeStoreStats.builder().enabled(false).build();
+        }
+        lock.readLock().lock();
+        try {
+            long live = liveBytes();
+            return RecipeStoreStats.builder()
+                    .enabled(true)
+                    .segments(segments.size())
+                    .recipes(byFingerprint.size())
+                    .liveBytes(live)
+                    .deadBytes(writtenBytes() - live)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Store-wide numbers for the default tenant (the operator); other tenants only see
+     * their own recipe count and live bytes.
+     */
+    public RecipeStoreStats stats(String tenant) {
+        if (!enabled || TenantScheduler.DEFAULT_TENANT.equals(tenant)) {
+            return stats();
+        }
+        lock.readLock().lock();
+        try {
+            int recipes = 0;
+            long live = 0;
+            for (Location loc : byFingerprint.values()) {
+                if (loc.tenant().equals(tenant)) {
+                    recipes++;
+                    live += loc.length();
+                }
+            }
+            return RecipeStoreStats.builder()
+                    .enabled(true)
+                    .recipes(recipes)
+                    .liveBytes(live)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (RecipeSegment s : segments.values()) {
+                s.close();
+            }
+        } catch (IOException e) {
+            log.warn("Recipe store close failed: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(p -> segmentId(p) >= 0)
+                    .sorted(Comparator.comparingInt(RecipeStore::segmentId))
+                    .toList();
+        }
+
+        for (Path file : files) {
+            RecipeSegment segment = RecipeSegment.open(segmentId(file), file, segmentBytes);
+            segment.recover((offset, record) -> {
+                try {
+                    JsonNode payload = objectMapper.readTree(record.payload());
+                    String tenant = payload.path(TENANT_FIELD).asText(TenantScheduler.DEFAULT_TENANT);
+                    BlendingResult result = readResult(payload);
+                    index(new Location(segment.id, offset, record.length(), record.timestamp(),
+                            HexFormat.of().formatHex(record.fingerprint()), tenant, batchIds(result)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            segments.put(segment.id, segment);
+            nextSegmentId = segment.id + 1;
+        }
+
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active == null) {
+            active = openSegment(nextSegmentId++);
+            segments.put(active.id, active);
+        }
+        log.info("Recipe store {}: {} recipes in {} segments", dir, byFingerprint.size(), segments.size());
+    }
+
+    private void roll() throws IOException {
+        active.force();
+        active = openSegment(nextSegmentId++);
+        segments.put(active.id, active);
+        if (writtenBytes() - liveBytes() > liveBytes()) {
+            compact();
+        }
+    }
+
+    private RecipeSegment openSegment(int id) throws IOException {
+        Path path = dir.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        return RecipeSegment.open(id, path, segmentBytes);
+    }
+
+    /**
+     * Latest timestamp wins per fingerprint, so recovery is independent of segment order.
+     */
+    private void index(Location loc) {
+        Location prev = byFingerprint.get(loc.fingerprint());
+        if (prev != null) {
+            if (prev.timestamp() >= loc.timestamp()) {
+                return;
+            }
+            unlink(prev);
+        }
+        link(loc);
+    }
+
+    private void link(Location loc) {
+        byFingerprint.put(loc.fingerprint(), loc);
+        for (String id : loc.batchIds()) {
+            byBatch.computeIfAbsent(id, k -> new ArrayList<>()).add(loc);
+        }
+        byTime.computeIfAbsent(loc.timestamp(), k -> new ArrayList<>()).add(loc);
+    }
+
+    private void unlink(Location loc) {
+        byFingerprint.remove(loc.fingerprint(), loc);
+        for (String id : loc.batchIds()) {
+            List<Location> hits = byBatch.get(id);
+            if (hits != null && hits.remove(loc) && hits.isEmpty()) {
+                byBatch.remove(id);
+            }
+        }
+        List<Location> bucket = byTime.get(loc.timestamp());
+        if (bucket != null && bucket.remove(loc) && bucket.isEmpty()) {
+            byTime.remove(loc.timestamp());
+        }
+    }
+
+    private StoredRecipe load(Location loc) {
+        RecipeSegment.Record record = segments.get(loc.segment()).read(loc.offset());
+        if (record == null) {
+            throw new IllegalStateException("Recipe record lost at segment " + loc.segment() + "@" + loc.offset());
+        }
+        try {
+            BlendingResult result = readResult(objectMapper.readTree(record.payload()));
+            result.setFingerprint(loc.fingerprint());
+            return new StoredRecipe(loc.fingerprint(), loc.timestamp(), result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BlendingResult readResult(JsonNode payload) throws IOException {
+        if (payload instanceof ObjectNode object) {
+            object.remove(TENANT_FIELD);
+        }
+        return objectMapper.treeToValue(payload, BlendingResult.class);
+    }
+
+    private long liveBytes() {
+        long bytes = 0;
+        for (Location loc : byFingerprint.values()) {
+            bytes += loc.length();
+        }
+        return bytes;
+    }
+
+    private long writtenBytes() {
+        long bytes = 0;
+        for (RecipeSegment s : segments.values()) {
+            bytes += s.writePosition();
+        }
+        return bytes;
+    }
+
+    private static Set<String> batchIds(BlendingResult result) {
+        return result.getComposition() == null ? Set.of() : Set.copyOf(result.getComposition().keySet());
+    }
+
+    private static int segmentId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.coffee.blending.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeStoreStats {
+    private boolean enabled;
+    private int segments;
+    private int recipes;      // live records (latest per fingerprint)
+    private long liveBytes;
+    private long deadBytes;   // superseded records, reclaimed by compaction
+}
@@ -0,0 +1,15 @@
+package com.coffee.blending.store;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredRecipe {
+    private String fingerprint; // SHA-256 of the request (hex)
+    private long timestamp;     // epoch ms when stored
+    private BlendingResult result;
+}
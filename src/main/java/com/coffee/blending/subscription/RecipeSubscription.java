@@ -0,0 +1,29 @@
+package com.coffee.blending.subscription;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A standing recipe: a target kept optimal against the live inventory.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSubscription {
+    private String id;
+    private String tenant;     // whose inventory the recipe follows
+    private BlendingTarget target;
+    private OptimizerParams params;
+    private String algorithm;
+
+    private long version;      // bumped on every re-solve
+    private String updatedAt;
+    private String lastTrigger; // what caused the last re-solve
+    private BlendingResult result;
+}
@@ -0,0 +1,20 @@
+package com.coffee.blending.subscription;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeUpdate {
+    private String subscriptionId;
+    private long version;
+    private String trigger;
+    private boolean recipeChanged; // composition differs from the previous version
+    private double previousObjective;
+    private BlendingResult result;
+}
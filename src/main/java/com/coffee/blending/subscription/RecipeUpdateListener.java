@@ -0,0 +1,8 @@
+package com.coffee.blending.subscription;
+
+/**
+ * Receives re-solved standing recipes. Called on a subscription worker thread.
+ */
+public interface RecipeUpdateListener {
+    void onUpdate(RecipeUpdate update);
+}
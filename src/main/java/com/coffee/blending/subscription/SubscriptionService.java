@@ -0,0 +1,301 @@
+package com.coffee.blending.subscription;
+
+import com.coffee.blending.domain.BatchSensitivity;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.SensitivityReport;
+import com.coffee.blending.inventory.BatchChange;
+import com.coffee.blending.inventory.InventoryChangedEvent;
+import com.coffee.blending.inventory.InventoryService;
+import com.coffee.blending.service.BlendingService;
+import com.coffee.blending.tenant.TenantScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Standing recipes kept optimal against the live inventory.
+ *
+ * Each inventory change is screened against every subscription's last sensitivity
+ * report instead of re-solving everything:
+ * - a recipe lot that was only consumed, and still covers what the recipe takes, changes nothing;
+ * - any other change to a recipe lot triggers a re-solve;
+ * - an unused lot that only got dearer or smaller cannot help and is skipped;
+ * - an unused or newly received lot triggers a re-solve only if its reduced cost against
+ *   the stored duals is negative.
+ * Re-solves are warm-started from the previous recipe, coalesced per subscription, and
+ * pushed to listeners, so compute follows the rate of relevant changes, not the number of recipes.
+ * The reduced-cost screen is LP-local (support fixed), the same caveat as what-if ranges.
+ * Subscriptions belong to a tenant and only follow that tenant's inventory.
+ */
+@Slf4j
+@Service
+public class SubscriptionService {
+
+    private static final double COST_EPS = 1e-6;
+    private static final double STOCK_EPS = 1e-6;
+
+    private final BlendingService blendingService;
+    private final InventoryService inventoryService;
+    private final ExecutorService workers;
+    private final Counter resolves;
+    private final Counter skips;
+
+    private final Map<String, State> subscriptions = new ConcurrentHashMap<>();
+    private final List<RecipeUpdateListener> listeners = new CopyOnWriteArrayList<>();
+
+    public SubscriptionService(BlendingService blendingService,
+                               InventoryService inventoryService,
+                               MeterRegistry registry,
+                               ObjectProvider<RecipeUpdateListener> beanListeners,
+                               @Value("${blending.subscriptions.parallelism:2}") int parallelism) {
+        this.blendingService = blendingService;
+        this.inventoryService = inventoryService;
+        this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        this.resolves = Counter.builder("blending.subscription.screened").tag("outcome", "resolve").register(registry);
+        this.skips = Counter.builder("blending.subscription.screened").tag("outcome", "skip").register(registry);
+        beanListeners.orderedStream().forEach(listeners::add);
+    }
+
+    public RecipeSubscription subscribe(BlendingTarget target, OptimizerParams params, String algorithm) {
+        return subscribe(TenantScheduler.DEFAULT_TENANT, target, params, algorithm);
+    }
+
+    public RecipeSubscription subscribe(String tenant, BlendingTarget target, OptimizerParams params,
+                                        String algorithm) {
+        if (params == null) {
+            params = OptimizerParams.defaults();
+        }
+        BlendingResult result = blendingService.optimizeBlend(tenant, inventoryService.usableBatches(tenant), target,
+                params, algorithm, true);
+        RecipeSubscription subscription = RecipeSubscription.builder()
+                .id(UUID.randomUUID().toString())
+                .tenant(tenant)
+                .target(target)
+                .params(params)
+                .algorithm(algorithm)
+                .version(1)
+                .updatedAt(Instant.now().toString())
+                .lastTrigger("subscribed")
+                .result(result)
+                .build();
+        subscriptions.put(subscription.getId(), new State(subscription));
+        return subscription;
+    }
+
+    public boolean unsubscribe(String tenant, String id) {
+        return get(tenant, id) != null && subscriptions.remove(id) != null;
+    }
+
+    public RecipeSubscription get(String tenant, String id) {
+        State state = subscriptions.get(id);
+        return state == null || !tenant.equals(state.current.getTenant()) ? null : state.current;
+    }
+
+    public List<RecipeSubscription> list(String tenant) {
+        List<RecipeSubscription> out = new ArrayList<>();
+        for (State s : subscriptions.values()) {
+            if (tenant.equals(s.current.getTenant())) {
+                out.add(s.current);
+            }
+        }
+        return out;
+    }
+
+    public void addListener(RecipeUpdateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RecipeUpdateListener listener) {
+        listeners.remove(listener);
+    }
+
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        for (State state : subscriptions.values()) {
+            if (!event.getTenant().equals(state.current.getTenant())) {
+                continue;
+            }
+            String trigger;
+            if (event.isReload()) {
+                trigger = "inventory reloaded";
+            } else if (state.running) {
+                // The solve in progress may predate this change, so run once more after it
+                trigger = "changed during re-solve";
+            } else {
+                trigger = screen(state.current.getResult(), event.getChanges());
+            }
+
+            if (trigger == null) {
+                skips.increment();
+            } else {
+                resolves.increment();
+                schedule(state, trigger);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Returns why the recipe must be re-solved, or null if no change can affect it.
+     */
+    static String screen(BlendingResult result, List<BatchChange> changes) {
+        Map<String, Double> composition = result.getComposition() == null ? Map.of() : result.getComposition();
+        SensitivityReport report = result.isFeasible() ? result.getSensitivity() : null;
+
+        for (BatchChange change : changes) {
+            String id = change.getBatchId();
+            if (composition.containsKey(id)) {
+                BatchSensitivity entry = report == null ? null : report.find(id);
+                boolean stillCovered = entry != null && entry.getStockMin() != null
+                        && change.stockAfter() >= entry.getStockMin() - STOCK_EPS;
+                if (consumedOnly(change) && !change.isDepleted() && stillCovered) {
+                    continue;
+                }
+                return "recipe lot " + id + " changed";
+            }
+            if (!canImprove(change) || change.isDepleted()) {
+                continue;
+            }
+            if (report == null) {
+                return "lot " + id + " changed (no sensitivity to screen against)";
+            }
+            double reducedCost = report.reducedCostOf(change.getAfter());
+            if (reducedCost < -COST_EPS) {
+                return String.format("lot %s prices in (reduced cost %.0f VND)", id, reducedCost);
+            }
+        }
+        return null;
+    }
+
+    private void schedule(State state, String trigger) {
+        state.pendingTrigger = trigger;
+        if (state.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> resolve(state));
+        }
+    }
+
+    private void resolve(State state) {
+        synchronized (state) {
+            state.running = true;
+            state.scheduled.set(false);
+            try {
+                RecipeSubscription previous = state.current;
+                if (!subscriptions.containsKey(previous.getId())) {
+                    return;
+                }
+                String trigger = state.pendingTrigger;
+                BlendingResult result = blendingService.reoptimize(previous.getTenant(),
+                        inventoryService.usableBatches(previous.getTenant()), previous.getTarget(),
+                        previous.getParams(), previous.getAlgorithm(), previous.getResult());
+
+                RecipeSubscription next = previous.toBuilder()
+                        .version(previous.getVersion() + 1)
+                        .updatedAt(Instant.now().toString())
+                        .lastTrigger(trigger)
+                        .result(result)
+                        .build();
+                state.current = next;
+
+                RecipeUpdate update = RecipeUpdate.builder()
+                        .subscriptionId(next.getId())
+                        .version(next.getVersion())
+                        .trigger(trigger)
+                        .recipeChanged(!sameComposition(previous.getResult(), result))
+                        .previousObjective(previous.getResult().getObjectiveValue())
+                        .result(result)
+                        .build();
+                for (RecipeUpdateListener listener : listeners) {
+                    try {
+                        listener.onUpdate(update);
+                    } catch (RuntimeException e) {
+                        log.warn("Recipe listener failed: {}", e.getMessage());
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Re-solve of subscription {} failed: {}", state.current.getId(), e.getMessage());
+            } finally {
+                state.running = false;
+            }
+        }
+    }
+
+    /**
+     * True if the lot only lost stock (same price and attributes).
+     */
+    private static boolean consumedOnly(BatchChange change) {
+        if (change.getBefore() == null || change.getAfter() == null) {
+            return false;
+        }
+        CoffeeBatch expected = change.getBefore().toBuilder()
+                .availableStock(change.getAfter().getAvailableStock())
+                .build();
+        return expected.equals(change.getAfter()) && change.stockAfter() <= change.stockBefore();
+    }
+
+    /**
+     * False if the lot only got dearer and/or smaller, which can never improve a recipe that doesn't use it.
+     */
+    private static boolean canImprove(BatchChange change) {
+        if (change.getBefore() == null) {
+            return true;
+        }
+        CoffeeBatch before = change.getBefore();
+        CoffeeBatch after = change.getAfter();
+        CoffeeBatch expected = before.toBuilder()
+                .availableStock(after.getAvailableStock())
+                .price(after.getPrice())
+                .build();
+        boolean worseOnly = expected.equals(after)
+                && after.getAvailableStock() <= before.getAvailableStock()
+                && after.getPrice() >= before.getPrice();
+        return !worseOnly;
+    }
+
+    private static boolean sameComposition(BlendingResult a, BlendingResult b) {
+        Map<String, Double> ca = a.getComposition() == null ? Map.of() : a.getComposition();
+        Map<String, Double> cb = b.getComposition() == null ? Map.of() : b.getComposition();
+        if (!ca.keySet().equals(cb.keySet())) {
+            return false;
+        }
+        for (Map.Entry<String, Double> e : ca.entrySet()) {
+            if (Math.abs(e.getValue() - cb.get(e.getKey())) > 1e-6) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class State {
+        volatile RecipeSubscription current;
+        volatile String pendingTrigger;
+        volatile boolean running;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        State(RecipeSubscription current) {
+            this.current = current;
+        }
+    }
+}
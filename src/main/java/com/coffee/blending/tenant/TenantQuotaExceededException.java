@@ -0,0 +1,22 @@
+package com.coffee.blending.tenant;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A tenant hit its CPU budget or waited too long for a solver slot; the client should back off.
+ */
+@Getter
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TenantQuotaExceededException extends RuntimeException {
+
+    private final String tenant;
+    private final String reason;
+
+    public TenantQuotaExceededException(String tenant, String reason, String message) {
+        super(message);
+        this.tenant = tenant;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,303 @@
+package com.coffee.blending.tenant;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Shares the solver capacity of one deployment between tenants (roasteries).
+ *
+ * - A fixed number of solver slots (blending.tenants.solver-slots) is granted round-robin
+ *   over the tenants that are waiting, one slot per tenant per turn, so a tenant with a
+ *   long queue cannot starve the others.
+ * - Each tenant runs at most blending.tenants.max-concurrent solves at once.
+ * - Solver CPU time (thread CPU, which includes the native SCIP work) is drawn from a
+ *   per-tenant token bucket refilled at blending.tenants.cpu-seconds-per-minute. A solve
+ *   may overdraw it; the tenant's next solves are rejected until it is refilled.
+ * - Waiting longer than blending.tenants.queue-timeout-ms is rejected as well.
+ * Rejections surface as {@link TenantQuotaExceededException} (HTTP 429). Per-tenant
+ * latency, queue wait, CPU and rejections are published as Micrometer meters.
+ *
+ * Only the default tenant and the ids listed in blending.tenants.allowed are accepted.
+ * Every tenant keeps meters, an inventory and caches for the life of the process, so
+ * accepting any id would let a client grow them without bound by rotating X-Tenant-Id.
+ */
+@Slf4j
+@Component
+public class TenantScheduler {
+
+    public static final String HEADER = "X-Tenant-Id";
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+
+    private final MeterRegistry registry;
+    private final int slots;
+    private final int maxConcurrent;
+    private final long cpuNanosPerMinute;
+    private final long queueTimeoutNanos;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final Set<String> allowed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition granted = lock.newCondition();
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    // Tenants with waiters, in the order they get their next slot
+    private final ArrayDeque<Tenant> rotation = new ArrayDeque<>();
+    private int freeSlots;
+
+    public TenantScheduler(MeterRegistry registry,
+                           @Value("${blending.tenants.solver-slots:0}") int slots,
+                           @Value("${blending.tenants.max-concurrent:0}") int maxConcurrent,
+                           @Value("${blending.tenants.cpu-seconds-per-minute:0}") double cpuSecondsPerMinute,
+                           @Value("${blending.tenants.queue-timeout-ms:30000}") long queueTimeoutMs,
+                           @Value("${blending.tenants.allowed:}") List<String> allowed) {
+        this.registry = registry;
+        this.allowed = allowed.stream().map(String::trim).filter(t -> !t.isEmpty()).collect(Collectors.toSet());
+        this.slots = slots > 0 ? slots : Runtime.getRuntime().availableProcessors();
+        this.maxConcurrent = maxConcurrent > 0 ? Math.min(maxConcurrent, this.slots) : this.slots;
+        this.cpuNanosPerMinute = (long) (cpuSecondsPerMinute * 1e9);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        this.freeSlots = this.slots;
+        this.cpuTimeSupported = threads.isCurrentThreadCpuTimeSupported();
+        if (cpuNanosPerMinute > 0 && !cpuTimeSupported) {
+            log.warn("Thread CPU time is not available on this JVM; tenant CPU quotas are not enforced");
+        }
+    }
+
+    /**
+     * Runs one solve for the tenant once a slot is granted, accounting its time and CPU.
+     */
+    public <T> T run(String tenantId, Supplier<T> solve) {
+        Tenant tenant = tenant(tenantId);
+        long queued = System.nanoTime();
+        acquire(tenant);
+        long start = System.nanoTime();
+        tenant.queueWait.record(start - queued, TimeUnit.NANOSECONDS);
+        long cpuStart = cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+        try {
+            return solve.get();
+        } finally {
+            long cpu = cpuTimeSupported ? threads.getCurrentThreadCpuTime() - cpuStart : 0;
+            tenant.latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            tenant.cpu.increment(cpu / 1e9);
+            tenant.cpuNanos.addAndGet(cpu);
+            release(tenant, cpu);
+        }
+    }
+
+    /**
+     * Tenant id of a request: null or blank means the default tenant. Other ids must be
+     * listed in blending.tenants.allowed.
+     */
+    public String resolve(String tenantId) {
+        if (tenantId == null || tenantId.isBlank()) {
+            return DEFAULT_TENANT;
+        }
+        if (!TENANT_ID.matcher(tenantId).matches()) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenantId);
+        }
+        if (!allowed.contains(tenantId) && !DEFAULT_TENANT.equals(tenantId)) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenantId);
+        }
+        return tenantId;
+    }
+
+    public List<TenantStats> stats() {
+        List<TenantStats> out = new ArrayList<>(tenants.size());
+        lock.lock();
+        try {
+            for (Tenant t : tenants.values()) {
+                refill(t);
+                out.add(TenantStats.builder()
+                        .tenant(t.id)
+                        .running(t.running)
+                        .queued(t.waiting.size())
+                        .solves(t.latency.count())
+                        .rejected(t.rejectedTotal.get())
+                        .cpuSeconds(t.cpuNanos.get() / 1e9)
+                        .cpuBudgetSeconds(cpuNanosPerMinute > 0 ? t.cpuTokens / 1e9 : -1)
+                        .build());
+            }
+        } finally {
+            lock.unlock();
+        }
+        return out;
+    }
+
+    private Tenant tenant(String tenantId) {
+        return tenants.computeIfAbsent(resolve(tenantId), Tenant::new);
+    }
+
+    private void acquire(Tenant tenant) {
+        Ticket ticket = new Ticket();
+        lock.lock();
+        try {
+            refill(tenant);
+            if (cpuNanosPerMinute > 0 && cpuTimeSupported && tenant.cpuTokens <= 0) {
+                throw reject(tenant, "cpu", "Tenant " + tenant.id + " used its solver CPU budget, retry later");
+            }
+            tenant.waiting.add(ticket);
+            if (tenant.waiting.size() == 1) {
+                rotation.add(tenant);
+            }
+            dispatch();
+
+            long left = queueTimeoutNanos;
+            while (!ticket.granted) {
+                if (left <= 0) {
+                    withdraw(tenant, ticket);
+                    throw reject(tenant, "queue-timeout", "Tenant " + tenant.id + " waited too long for a solver slot");
+                }
+                try {
+                    left = granted.awaitNanos(left);
+                } catch (InterruptedException e) {
+                    if (ticket.granted) {
+                        // Granted in the meantime: give the slot back to the next tenant
+                        tenant.running--;
+                        freeSlots++;
+                        dispatch();
+                    } else {
+                        withdraw(tenant, ticket);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a solver slot", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Tenant tenant, long cpuNanos) {
+        lock.lock();
+        try {
+            tenant.running--;
+            tenant.cpuTokens -= cpuNanos;
+            freeSlots++;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hands free slots to waiting tenants in rotation order, skipping tenants at their
+     * concurrency limit. Caller holds the lock.
+     */
+    private void dispatch() {
+        boolean any = false;
+        int skipped = 0;
+        while (freeSlots > 0 && skipped < rotation.size()) {
+            Tenant t = rotation.poll();
+            if (t.running >= maxConcurrent) {
+                rotation.add(t);
+                skipped++;
+                continue;
+            }
+            Ticket ticket = t.waiting.poll();
+            ticket.granted = true;
+            t.running++;
+            freeSlots--;
+            any = true;
+            skipped = 0;
+            if (!t.waiting.isEmpty()) {
+                rotation.add(t);
+            }
+        }
+        if (any) {
+            granted.signalAll();
+        }
+    }
+
+    private void withdraw(Tenant tenant, Ticket ticket) {
+        tenant.waiting.remove(ticket);
+        if (tenant.waiting.isEmpty()) {
+            rotation.remove(tenant);
+        }
+    }
+
+    private void refill(Tenant tenant) {
+        if (cpuNanosPerMinute <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        double earned = (now - tenant.lastRefill) / 60e9 * cpuNanosPerMinute;
+        tenant.cpuTokens = Math.min(cpuNanosPerMinute, tenant.cpuTokens + (long) earned);
+        tenant.lastRefill = now;
+    }
+
+    private TenantQuotaExceededException reject(Tenant tenant, String reason, String message) {
+        tenant.rejectedTotal.incrementAndGet();
+        Counter.builder("blending.tenant.rejected")
+                .description("Solves refused by tenant quotas")
+                .tags("tenant", tenant.id, "reason", reason)
+                .register(registry)
+                .increment();
+        return new TenantQuotaExceededException(tenant.id, reason, message);
+    }
+
+    private static final class Ticket {
+        boolean granted;
+    }
+
+    private final class Tenant {
+        final String id;
+        final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        int running;
+        long cpuTokens = cpuNanosPerMinute;
+        long lastRefill = System.nanoTime();
+
+        final AtomicLong cpuNanos = new AtomicLong();
+        final AtomicLong rejectedTotal = new AtomicLong();
+        final Timer latency;
+        final Timer queueWait;
+        final Counter cpu;
+
+        Tenant(String id) {
+            this.id = id;
+            this.latency = Timer.builder("blending.tenant.solve")
+                    .description("Solver time per tenant (throughput = count rate)")
+                    .tag("tenant", id)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.queueWait = Timer.builder("blending.tenant.queue")
+                    .description("Time waiting for a solver slot")
+                    .tag("tenant", id)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.cpu = Counter.builder("blending.tenant.cpu")
+                    .description("Solver CPU seconds consumed")
+                    .baseUnit("seconds")
+                    .tag("tenant", id)
+                    .register(registry);
+            Gauge.builder("blending.tenant.running", this, t -> t.running)
+                    .tag("tenant", id)
+                    .register(registry);
+            Gauge.builder("blending.tenant.queued", this, t -> t.waiting.size())
+                    .tag("tenant", id)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.coffee.blending.tenant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Point-in-time solver usage of one tenant.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantStats {
+    private String tenant;
+    private int running;
+    private int queued;
+    private long solves;
+    private long rejected;
+    private double cpuSeconds;         // total solver CPU time since startup
+    private double cpuBudgetSeconds;   // left in the current window (negative = in debt), -1 = unlimited
+}
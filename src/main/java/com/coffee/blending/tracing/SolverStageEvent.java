@@ -0,0 +1,43 @@
+package com.coffee.blending.tracing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around one stage of a native solve (prefilter, build, solve, extract).
+ * Stack traces are off to keep continuous recording cheap.
+ */
+@Name("com.coffee.blending.SolverStage")
+@Label("Solver Stage")
+@Category({"Coffee Blending", "Optimizer"})
+@Description("One stage of an optimization attempt")
+@StackTrace(false)
+public class SolverStageEvent extends Event {
+    @Label("Stage")
+    public String stage;
+
+    @Label("Algorithm")
+    public String algorithm;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Batches")
+    public int batches;
+
+    @Label("Variables")
+    public int variables;
+
+    @Label("Constraints")
+    public int constraints;
+
+    @Label("Retry")
+    public int retry;
+
+    @Label("Solver Status")
+    public String status;
+}
@@ -0,0 +1,69 @@
+package com.coffee.blending.tracing;
+
+import com.coffee.blending.domain.BlendingTarget;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a JFR {@link SolverStageEvent} per optimizer stage, and optionally an
+ * OpenTelemetry span (blending.tracing.otel.enabled=true). Spans go to whatever
+ * exporter the OpenTelemetry agent/SDK is configured with (OTLP collector, logging file).
+ */
+@Component
+public class SolverTracer {
+
+    private final Tracer tracer;
+
+    public SolverTracer(@Value("${blending.tracing.otel.enabled:false}") boolean otelEnabled) {
+        this.tracer = otelEnabled ? GlobalOpenTelemetry.getTracer("coffee-blending-engine") : null;
+    }
+
+    public Stage start(String stage, String algorithm, BlendingTarget.OptimizationMode mode, int retry) {
+        return new Stage(stage, algorithm, mode == null ? "NONE" : mode.name(), retry);
+    }
+
+    public final class Stage {
+        private final SolverStageEvent event = new SolverStageEvent();
+        private final Span span;
+
+        private Stage(String stage, String algorithm, String mode, int retry) {
+            if (event.isEnabled()) {
+                event.stage = stage;
+                event.algorithm = algorithm;
+                event.mode = mode;
+                event.retry = retry;
+                event.begin();
+            }
+            span = tracer == null ? null : tracer.spanBuilder("blending." + stage)
+                    .setAttribute("blending.algorithm", algorithm)
+                    .setAttribute("blending.mode", mode)
+                    .setAttribute("blending.retry", retry)
+                    .startSpan();
+        }
+
+        public void end(int batches, int variables, int constraints, String status) {
+            if (event.isEnabled()) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.batches = batches;
+                    event.variables = variables;
+                    event.constraints = constraints;
+                    event.status = status;
+                    event.commit();
+                }
+            }
+            if (span != null) {
+                span.setAttribute("blending.batches", batches);
+                span.setAttribute("blending.variables", variables);
+                span.setAttribute("blending.constraints", constraints);
+                if (status != null) {
+                    span.setAttribute("blending.status", status);
+                }
+                span.end();
+            }
+        }
+    }
+}
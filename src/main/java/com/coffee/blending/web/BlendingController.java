@@ -1,29 +1,211 @@
 package com.coffee.blending.web;
 
+import com.coffee.blending.capture.RequestRecorder;
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendEvaluation;
 import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RankedRecipe;
+import com.coffee.blending.domain.RobustnessOptions;
+import com.coffee.blending.domain.WhatIfResult;
+import com.coffee.blending.inventory.InventoryService;
 import com.coffee.blending.service.BlendingService;
+import com.coffee.blending.service.BulkOptimizationService;
+import com.coffee.blending.tenant.TenantScheduler;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/optimize")
 @RequiredArgsConstructor
 public class BlendingController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final BlendingService blendingService;
+    private final RequestRecorder requestRecorder;
+    private final StreamingRequestReader streamingReader;
+    private final InventoryService inventoryService;
+    private final BulkOptimizationService bulkService;
+    private final ObjectMapper objectMapper;
+    private final TenantScheduler tenantScheduler;
 
     @PostMapping
-    public ResponseEntity<BlendingResult> optimize(@RequestBody BlendingRequest request) {
-        BlendingResult result = blendingService.optimizeBlend(
-                request.getBatches(), 
-                request.getTarget(), 
-                request.getParams(),
-                request.getAlgorithm()
+    public ResponseEntity<BlendingResult> optimize(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody BlendingRequest request) {
+        return ResponseEntity.ok(solve(tenantScheduler.resolve(tenant), request));
+    }
+
+    /**
+     * Compact binary variant for integration clients: CBOR with columnar batches in and
+     * parallel arrays out. JSON stays the default for the web UI.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_CBOR_VALUE, produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<ColumnarBlendingResult> optimizeColumnar(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody ColumnarBlendingRequest columnar) {
+        return ResponseEntity.ok(ColumnarBlendingResult.from(
+                solve(tenantScheduler.resolve(tenant), columnar.toBlendingRequest())));
+    }
+
+    /**
+     * Same JSON as {@link #optimize}, but parsed as a token stream for very large inventories:
+     * empty lots are dropped during the parse, and the rest go to the engines as columns
+     * without ever becoming objects.
+     */
+    @PostMapping(path = "/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BlendingResult> optimizeStream(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenantHeader,
+            InputStream body) throws IOException {
+        String tenant = tenantScheduler.resolve(tenantHeader);
+        long start = System.nanoTime();
+        StreamedRequest request = streamingReader.read(body);
+
+        if (request.isUseInventory()) {
+            // Nothing large was uploaded, so this is the plain request against the snapshot
+            return ResponseEntity.ok(solve(tenant, new BlendingRequest(null, request.getTarget(), request.getParams(),
+                    request.getAlgorithm(), request.isSensitivity(), true, request.getRobustness(),
+                    request.getAlternatives())));
+        }
+        BatchColumns batches = request.getBatches();
+        if (batches.size() == 0 && request.getTotalLots() > 0) {
+            return ResponseEntity.ok(BlendingResult.builder().feasible(false).status("OUT_OF_STOCK").build());
+        }
+
+        BlendingResult result = solve(tenant, batches, request.getTarget(), request.getParams(),
+                request.getAlgorithm(), request.isSensitivity(), request.getRobustness(), request.getAlternatives());
+        // The upload is captured as columns; it never becomes objects
+        requestRecorder.record(tenant, new BlendingRequest(null, request.getTarget(), request.getParams(),
+                request.getAlgorithm(), request.isSensitivity(), false, request.getRobustness(),
+                request.getAlternatives()), batches, result, System.nanoTime() - start);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Bulk run: one NDJSON line per target, written as soon as that solve finishes.
+     * Lines are IndexedResult, or CompactBlendingResult when compact=true.
+     */
+    @PostMapping(path = "/bulk", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> optimizeBulk(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenantHeader,
+            @RequestBody BulkBlendingRequest request) {
+        String tenant = tenantScheduler.resolve(tenantHeader);
+        BatchColumns batches = request.isUseInventory()
+                ? inventoryService.usableColumns(tenant)
+                : request.getBatches() == null ? null : BatchColumns.of(request.getBatches());
+        if (batches == null || batches.size() == 0) {
+            throw new IllegalArgumentException("Batch list cannot be empty");
+        }
+        // Everything that can fail for the whole run fails here, before the 200 is sent
+        bulkService.validate(request.getTargets(), request.getParams());
+
+        Map<String, Integer> batchIndex = request.isCompact() ? batches.index() : Map.of();
+
+        StreamingResponseBody body = out -> {
+            try {
+                bulkService.optimizeAll(tenant, batches, request.getTargets(), request.getParams(), request.getAlgorithm(),
+                        (index, result) -> {
+                            Object line = request.isCompact()
+                                    ? CompactBlendingResult.from(index, result, batchIndex)
+                                    : new IndexedResult(index, result);
+                            out.write(objectMapper.writeValueAsBytes(line));
+                            out.write('\n');
+                            out.flush();
+                        });
+            } catch (IOException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Bulk optimization aborted", e);
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @PostMapping("/what-if")
+    public ResponseEntity<WhatIfResult> whatIf(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody WhatIfRequest request) {
+        WhatIfResult result = blendingService.whatIf(
+                tenantScheduler.resolve(tenant),
+                request.getResultId(),
+                request.getBatchId(),
+                request.getPriceDelta(),
+                request.getStockDelta()
         );
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Monte Carlo robustness of candidate recipes under cupping-score noise, most robust first.
+     */
+    @PostMapping("/robustness")
+    public ResponseEntity<List<RankedRecipe>> robustness(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody RobustnessRequest request) {
+        BatchColumns batches = request.isUseInventory()
+                ? inventoryService.usableColumns(tenantScheduler.resolve(tenant))
+                : request.getBatches() == null ? null : BatchColumns.of(request.getBatches());
+        return ResponseEntity.ok(blendingService.rankByRobustness(request.getCandidates(), batches,
+                request.getTarget(), request.getParams(), request.getOptions(), request.getTopK()));
+    }
+
+    /**
+     * Solver-free scoring of candidate compositions (e.g. slider positions in the UI):
+     * predicted profile, price, similarity and stock check for each, in request order.
+     */
+    @PostMapping("/evaluate")
+    public ResponseEntity<BlendEvaluation> evaluate(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody EvaluateRequest request) {
+        BatchColumns columns = request.isUseInventory()
+                ? inventoryService.usableColumns(tenantScheduler.resolve(tenant))
+                : request.getBatches() == null ? null : BatchColumns.of(request.getBatches());
+        return ResponseEntity.ok(blendingService.evaluate(request.getCandidates(), columns, request.getTarget()));
+    }
+
+    private BlendingResult solve(String tenant, BlendingRequest request) {
+        long start = System.nanoTime();
+        // The live inventory stays columnar; lot objects are built only for the lots a result uses
+        BatchColumns batches = request.isUseInventory()
+                ? inventoryService.usableColumns(tenant)
+                : request.getBatches() == null ? null : BatchColumns.of(request.getBatches());
+        BlendingResult result = solve(tenant, batches, request.getTarget(), request.getParams(),
+                request.getAlgorithm(), request.isSensitivity(), request.getRobustness(), request.getAlternatives());
+        requestRecorder.record(tenant, request, batches, result, System.nanoTime() - start);
+        return result;
+    }
+
+    private BlendingResult solve(String tenant, BatchColumns batches, BlendingTarget target, OptimizerParams params,
+                                 String algorithm, boolean sensitivity, RobustnessOptions robustness,
+                                 AlternativesOptions alternatives) {
+        BlendingResult result = alternatives != null
+                ? blendingService.optimizeAlternatives(tenant, batches, target, params, algorithm, sensitivity,
+                        alternatives)
+                : blendingService.optimizeBlend(tenant, batches, target, params, algorithm, sensitivity);
+        if (robustness != null) {
+            blendingService.attachRobustness(result, batches, target, params, robustness);
+            if (result.getAlternatives() != null) {
+                for (BlendingResult alternative : result.getAlternatives()) {
+                    blendingService.attachRobustness(alternative, batches, target, params, robustness);
+                }
+            }
+        }
+        return result;
+    }
 }
@@ -1,8 +1,10 @@
 package com.coffee.blending.web;
 
+import com.coffee.blending.domain.AlternativesOptions;
 import com.coffee.blending.domain.BlendingTarget;
 import com.coffee.blending.domain.CoffeeBatch;
 import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RobustnessOptions;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,4 +19,8 @@ public class BlendingRequest {
     private BlendingTarget target;
     private OptimizerParams params;
     private String algorithm; // "DEFAULT" or "HYBRID"
+    private boolean sensitivity; // attach LP ranges + resultId for /what-if
+    private boolean useInventory; // solve against the imported server-side snapshot instead of batches
+    private RobustnessOptions robustness; // attach a Monte Carlo robustness report (null = skip)
+    private AlternativesOptions alternatives; // also return backup recipes with different lots (null = skip)
 }
@@ -0,0 +1,22 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBlendingRequest {
+    private List<CoffeeBatch> batches;
+    private boolean useInventory;  // use the imported snapshot instead of batches
+    private List<BlendingTarget> targets;
+    private OptimizerParams params;
+    private String algorithm;      // "DEFAULT" or "HYBRID"
+    private boolean compact;       // CompactBlendingResult lines instead of full results
+}
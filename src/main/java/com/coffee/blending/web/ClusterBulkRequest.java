@@ -0,0 +1,24 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.cluster.ClusterSubproblem;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterBulkRequest {
+    private List<CoffeeBatch> batches;      // shared inventory for the targets
+    private boolean useInventory;           // use the server-side snapshot instead of batches
+    private List<BlendingTarget> targets;
+    private List<ClusterSubproblem> subproblems; // decomposed plan pieces, each with its own lots
+    private OptimizerParams params;
+    private String algorithm;
+    private long deadlineMs;                // 0 = blending.cluster.default-deadline-ms
+}
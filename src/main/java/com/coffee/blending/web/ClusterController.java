@@ -0,0 +1,41 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.cluster.ClusterCoordinator;
+import com.coffee.blending.cluster.ClusterRunResult;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.inventory.InventoryService;
+import com.coffee.blending.tenant.TenantScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Coordinator entry point: spreads a bulk run over the configured worker instances.
+ */
+@RestController
+@RequestMapping("/api/v1/cluster")
+@RequiredArgsConstructor
+public class ClusterController {
+
+    private final ClusterCoordinator coordinator;
+    private final InventoryService inventoryService;
+    private final TenantScheduler tenantScheduler;
+
+    @PostMapping("/bulk")
+    public ResponseEntity<ClusterRunResult> bulk(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody ClusterBulkRequest request) {
+        String resolved = tenantScheduler.resolve(tenant);
+        List<CoffeeBatch> batches = request.isUseInventory()
+                ? inventoryService.usableBatches(resolved)
+                : request.getBatches();
+        return ResponseEntity.ok(coordinator.run(resolved, batches, request.getTargets(), request.getSubproblems(),
+                request.getParams(), request.getAlgorithm(), request.getDeadlineMs()));
+    }
+}
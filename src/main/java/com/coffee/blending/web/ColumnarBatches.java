@@ -0,0 +1,89 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.CoffeeBatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inventory as parallel arrays (one entry per batch), so binary payloads carry
+ * each field name once instead of once per batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarBatches {
+    private String[] id;
+    private String[] name; // optional
+    private double[] price;
+    private double[] acid;
+    private double[] bitter;
+    private double[] sweet;
+    private double[] caffeine;
+    private double[] availableStock;
+    private int[] daysToExpiry;
+
+    public static ColumnarBatches from(BatchColumns batches) {
+        int n = batches.size();
+        ColumnarBatches c = new ColumnarBatches(new String[n], new String[n], new double[n], new double[n],
+                new double[n], new double[n], new double[n], new double[n], new int[n]);
+        for (int i = 0; i < n; i++) {
+            c.id[i] = batches.id(i);
+            c.name[i] = batches.name(i);
+            c.price[i] = batches.price(i);
+            c.acid[i] = batches.acid(i);
+            c.bitter[i] = batches.bitter(i);
+            c.sweet[i] = batches.sweet(i);
+            c.caffeine[i] = batches.caffeine(i);
+            c.availableStock[i] = batches.availableStock(i);
+            c.daysToExpiry[i] = batches.daysToExpiry(i);
+        }
+        return c;
+    }
+
+    public int size() {
+        return id == null ? 0 : id.length;
+    }
+
+    public List<CoffeeBatch> toBatches() {
+        int n = size();
+        requireLength(price, "price", n);
+        requireLength(acid, "acid", n);
+        requireLength(bitter, "bitter", n);
+        requireLength(sweet, "sweet", n);
+        requireLength(caffeine, "caffeine", n);
+        requireLength(availableStock, "availableStock", n);
+        if (daysToExpiry == null || daysToExpiry.length != n) {
+            throw new IllegalArgumentException("Column daysToExpiry must have " + n + " entries");
+        }
+        if (name != null && name.length != n) {
+            throw new IllegalArgumentException("Column name must have " + n + " entries");
+        }
+
+        List<CoffeeBatch> batches = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            batches.add(CoffeeBatch.builder()
+                    .id(id[i])
+                    .name(name == null ? id[i] : name[i])
+                    .price(price[i])
+                    .acid(acid[i])
+                    .bitter(bitter[i])
+                    .sweet(sweet[i])
+                    .caffeine(caffeine[i])
+                    .availableStock(availableStock[i])
+                    .daysToExpiry(daysToExpiry[i])
+                    .build());
+        }
+        return batches;
+    }
+
+    private static void requireLength(double[] column, String name, int n) {
+        if (column == null || column.length != n) {
+            throw new IllegalArgumentException("Column " + name + " must have " + n + " entries");
+        }
+    }
+}
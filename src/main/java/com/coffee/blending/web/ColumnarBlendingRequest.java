@@ -0,0 +1,31 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RobustnessOptions;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Binary (application/cbor) form of {@link BlendingRequest} with columnar batches.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarBlendingRequest {
+    private ColumnarBatches batches;
+    private BlendingTarget target;
+    private OptimizerParams params;
+    private String algorithm; // "DEFAULT" or "HYBRID"
+    private boolean sensitivity;
+    private boolean useInventory;
+    private RobustnessOptions robustness; // null = no Monte Carlo check
+    private AlternativesOptions alternatives; // null = single recipe
+
+    public BlendingRequest toBlendingRequest() {
+        return new BlendingRequest(batches == null ? null : batches.toBatches(), target, params, algorithm,
+                sensitivity, useInventory, robustness, alternatives);
+    }
+}
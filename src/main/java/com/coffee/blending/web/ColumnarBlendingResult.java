@@ -0,0 +1,90 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.RobustnessReport;
+import com.coffee.blending.domain.SensitivityReport;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary (application/cbor) form of {@link BlendingResult}: the composition and
+ * weight maps become parallel arrays.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarBlendingResult {
+    private boolean feasible;
+    private String status;
+
+    private String[] batchIds;
+    private double[] ratios;    // 0.0 - 1.0, aligned with batchIds
+    private double[] weightsKg; // aligned with batchIds
+
+    private double predictedPrice;
+    private double predictedAcid;
+    private double predictedBitter;
+    private double predictedSweet;
+    private double predictedCaffeine;
+    private double similarityScore;
+
+    private double objectiveValue;
+    private long computationTimeMs;
+    private int retryCount;
+    private String relaxationTrace;
+
+    private String resultId;
+    private SensitivityReport sensitivity;
+    private RobustnessReport robustness;
+
+    // Backup recipes in the same columnar form, next best first
+    private List<ColumnarBlendingResult> alternatives;
+
+    public static ColumnarBlendingResult from(BlendingResult r) {
+        ColumnarBlendingResult c = new ColumnarBlendingResult();
+        c.feasible = r.isFeasible();
+        c.status = r.getStatus();
+
+        Map<String, Double> composition = r.getComposition();
+        int n = composition == null ? 0 : composition.size();
+        c.batchIds = new String[n];
+        c.ratios = new double[n];
+        c.weightsKg = new double[n];
+        if (composition != null) {
+            int i = 0;
+            for (Map.Entry<String, Double> e : composition.entrySet()) {
+                c.batchIds[i] = e.getKey();
+                c.ratios[i] = e.getValue();
+                c.weightsKg[i] = r.getWeightDistribution() == null ? 0.0
+                        : r.getWeightDistribution().getOrDefault(e.getKey(), 0.0);
+                i++;
+            }
+        }
+
+        c.predictedPrice = r.getPredictedPrice();
+        c.predictedAcid = r.getPredictedAcid();
+        c.predictedBitter = r.getPredictedBitter();
+        c.predictedSweet = r.getPredictedSweet();
+        c.predictedCaffeine = r.getPredictedCaffeine();
+        c.similarityScore = r.getSimilarityScore();
+        c.objectiveValue = r.getObjectiveValue();
+        c.computationTimeMs = r.getComputationTimeMs();
+        c.retryCount = r.getRetryCount();
+        c.relaxationTrace = r.getRelaxationTrace();
+        c.resultId = r.getResultId();
+        c.sensitivity = r.getSensitivity();
+        c.robustness = r.getRobustness();
+        if (r.getAlternatives() != null) {
+            c.alternatives = new ArrayList<>(r.getAlternatives().size());
+            for (BlendingResult alternative : r.getAlternatives()) {
+                c.alternatives.add(from(alternative));
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,65 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Array-based bulk result line: batch positions in the request inventory plus ratios,
+ * instead of the id-keyed composition/weight maps.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompactBlendingResult {
+    private int index; // position in targets
+    private boolean feasible;
+    private String status;
+
+    private int[] batchIndices; // positions in the request inventory
+    private double[] ratios;    // aligned with batchIndices
+
+    private double predictedPrice;
+    private double predictedAcid;
+    private double predictedBitter;
+    private double predictedSweet;
+    private double predictedCaffeine;
+    private double similarityScore;
+    private double objectiveValue;
+    private long computationTimeMs;
+    private int retryCount;
+
+    public static CompactBlendingResult from(int index, BlendingResult r, Map<String, Integer> batchIndex) {
+        CompactBlendingResult c = new CompactBlendingResult();
+        c.index = index;
+        c.feasible = r.isFeasible();
+        c.status = r.getStatus();
+
+        Map<String, Double> composition = r.getComposition();
+        int n = composition == null ? 0 : composition.size();
+        c.batchIndices = new int[n];
+        c.ratios = new double[n];
+        if (composition != null) {
+            int i = 0;
+            for (Map.Entry<String, Double> e : composition.entrySet()) {
+                c.batchIndices[i] = batchIndex.getOrDefault(e.getKey(), -1);
+                c.ratios[i] = e.getValue();
+                i++;
+            }
+        }
+
+        c.predictedPrice = r.getPredictedPrice();
+        c.predictedAcid = r.getPredictedAcid();
+        c.predictedBitter = r.getPredictedBitter();
+        c.predictedSweet = r.getPredictedSweet();
+        c.predictedCaffeine = r.getPredictedCaffeine();
+        c.similarityScore = r.getSimilarityScore();
+        c.objectiveValue = r.getObjectiveValue();
+        c.computationTimeMs = r.getComputationTimeMs();
+        c.retryCount = r.getRetryCount();
+        return c;
+    }
+}
@@ -0,0 +1,20 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EvaluateRequest {
+    private List<Map<String, Double>> candidates; // batchId -> ratio, one map per composition
+    private List<CoffeeBatch> batches;
+    private boolean useInventory;
+    private BlendingTarget target;
+}
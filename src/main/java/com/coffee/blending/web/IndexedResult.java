@@ -0,0 +1,17 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One NDJSON line of a bulk run: the full result for targets[index].
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexedResult {
+    private int index;
+    private BlendingResult result;
+}
@@ -0,0 +1,59 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.inventory.BatchChange;
+import com.coffee.blending.inventory.InventoryChange;
+import com.coffee.blending.inventory.InventoryImporter;
+import com.coffee.blending.inventory.InventoryService;
+import com.coffee.blending.inventory.InventorySnapshot;
+import com.coffee.blending.inventory.InventorySummary;
+import com.coffee.blending.tenant.TenantScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+
+    private final InventoryService inventoryService;
+    private final TenantScheduler tenantScheduler;
+
+    @PostMapping("/import")
+    public ResponseEntity<InventorySummary> importFile(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestParam String file,
+            @RequestParam(defaultValue = "CSV") InventoryImporter.Format format) throws IOException {
+        return ResponseEntity.ok(inventoryService.importFile(tenantScheduler.resolve(tenant), file, format));
+    }
+
+    /**
+     * Apply consumption/receipt/repricing movements as one inventory version.
+     * Standing recipes affected by them are re-solved in the background.
+     */
+    @PostMapping("/changes")
+    public ResponseEntity<List<BatchChange>> applyChanges(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody List<InventoryChange> changes) {
+        return ResponseEntity.ok(inventoryService.applyChanges(tenantScheduler.resolve(tenant), changes));
+    }
+
+    @GetMapping
+    public ResponseEntity<InventorySummary> current(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant) {
+        InventorySnapshot snapshot = inventoryService.current(tenantScheduler.resolve(tenant));
+        if (snapshot == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(snapshot.summary());
+    }
+}
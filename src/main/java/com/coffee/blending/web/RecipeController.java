@@ -0,0 +1,77 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.tenant.TenantScheduler;
+import com.coffee.blending.store.RecipeStore;
+import com.coffee.blending.store.RecipeStoreStats;
+import com.coffee.blending.store.StoredRecipe;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Read access to previously computed recipes (audit, reuse across restarts).
+ * Every tenant only sees the recipes it solved; compaction is store-wide and is left to
+ * the default tenant.
+ */
+@RestController
+@RequestMapping("/api/v1/recipes")
+@RequiredArgsConstructor
+public class RecipeController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final RecipeStore recipeStore;
+    private final TenantScheduler tenantScheduler;
+
+    @GetMapping("/{fingerprint}")
+    public ResponseEntity<StoredRecipe> get(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @PathVariable String fingerprint) {
+        return recipeStore.find(tenantScheduler.resolve(tenant), fingerprint)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Newest first. Filter by batch ID, or by a time window in epoch milliseconds.
+     */
+    @GetMapping
+    public ResponseEntity<List<StoredRecipe>> search(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenantHeader,
+            @RequestParam(required = false) String batchId,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long to,
+            @RequestParam(defaultValue = "50") int limit) {
+        String tenant = tenantScheduler.resolve(tenantHeader);
+        int capped = Math.max(1, Math.min(limit, MAX_LIMIT));
+        if (batchId != null) {
+            return ResponseEntity.ok(recipeStore.findByBatch(tenant, batchId, capped));
+        }
+        return ResponseEntity.ok(recipeStore.findBetween(tenant, from, to, capped));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<RecipeStoreStats> stats(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant) {
+        return ResponseEntity.ok(recipeStore.stats(tenantScheduler.resolve(tenant)));
+    }
+
+    @PostMapping("/compact")
+    public ResponseEntity<RecipeStoreStats> compact(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant) throws IOException {
+        if (!TenantScheduler.DEFAULT_TENANT.equals(tenantScheduler.resolve(tenant))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(recipeStore.compact());
+    }
+}
@@ -0,0 +1,25 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.CoffeeBatch;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RobustnessOptions;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RobustnessRequest {
+    private List<BlendingResult> candidates; // e.g. sorted by cost; the first topK are re-ranked
+    private List<CoffeeBatch> batches;
+    private boolean useInventory;
+    private BlendingTarget target;
+    private OptimizerParams params;          // flavorTolerance comes from here
+    private RobustnessOptions options;
+    private int topK;                        // 0 = all candidates
+}
@@ -0,0 +1,29 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RobustnessOptions;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link BlendingRequest} as produced by {@link StreamingRequestReader}:
+ * only usable lots, already in columns.
+ */
+@Data
+@NoArgsConstructor
+public class StreamedRequest {
+    private BatchColumns batches;
+    private BlendingTarget target;
+    private OptimizerParams params;
+    private String algorithm;
+    private boolean sensitivity;
+    private boolean useInventory;
+    private RobustnessOptions robustness;
+    private AlternativesOptions alternatives;
+
+    private int totalLots;   // lots in the upload
+    private int droppedLots; // lots filtered out for empty stock
+}
@@ -0,0 +1,112 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.domain.RobustnessOptions;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a {@link BlendingRequest} JSON body straight off Jackson's token stream.
+ * Batches are validated and filtered while parsing and land directly in
+ * {@link BatchColumns}, so unusable lots never become objects and the heap
+ * holds only the usable inventory.
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingRequestReader {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ObjectMapper objectMapper;
+
+    public StreamedRequest read(InputStream body) throws IOException {
+        StreamedRequest request = new StreamedRequest();
+        request.setBatches(new BatchColumns(INITIAL_CAPACITY));
+
+        try (JsonParser p = objectMapper.getFactory().createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Request body must be a JSON object");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "batches" -> readBatches(p, request);
+                    case "target" -> request.setTarget(objectMapper.readValue(p, BlendingTarget.class));
+                    case "params" -> request.setParams(objectMapper.readValue(p, OptimizerParams.class));
+                    case "algorithm" -> request.setAlgorithm(p.getValueAsString());
+                    case "sensitivity" -> request.setSensitivity(p.getValueAsBoolean());
+                    case "useInventory" -> request.setUseInventory(p.getValueAsBoolean());
+                    case "robustness" -> request.setRobustness(objectMapper.readValue(p, RobustnessOptions.class));
+                    case "alternatives" -> request.setAlternatives(objectMapper.readValue(p, AlternativesOptions.class));
+                    default -> p.skipChildren();
+                }
+            }
+        }
+        return request;
+    }
+
+    private void readBatches(JsonParser p, StreamedRequest request) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("batches must be an array");
+        }
+        BatchColumns cols = request.getBatches();
+        int index = 0;
+        int dropped = 0;
+
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Batch #" + index + " must be an object");
+            }
+            String id = null;
+            String name = null;
+            double price = 0, acid = 0, bitter = 0, sweet = 0, caffeine = 0, stock = 0;
+            int days = 0;
+
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                p.nextToken();
+                switch (field) {
+                    case "id" -> id = p.getValueAsString();
+                    case "name" -> name = p.getValueAsString();
+                    case "price" -> price = p.getValueAsDouble();
+                    case "acid" -> acid = p.getValueAsDouble();
+                    case "bitter" -> bitter = p.getValueAsDouble();
+                    case "sweet" -> sweet = p.getValueAsDouble();
+                    case "caffeine" -> caffeine = p.getValueAsDouble();
+                    case "availableStock" -> stock = p.getValueAsDouble();
+                    case "daysToExpiry" -> days = p.getValueAsInt();
+                    default -> p.skipChildren();
+                }
+            }
+
+            if (id == null || id.isEmpty()) {
+                throw new IllegalArgumentException("Batch #" + index + " has no id");
+            }
+            if (price < 0 || !Double.isFinite(price) || !Double.isFinite(stock)) {
+                throw new IllegalArgumentException("Batch " + id + " has an invalid price or stock");
+            }
+
+            if (stock > BatchColumns.MIN_USABLE_STOCK) {
+                cols.add(id, name, price, acid, bitter, sweet, caffeine, stock, days);
+            } else {
+                dropped++;
+            }
+            index++;
+        }
+        request.setTotalLots(index);
+        request.setDroppedLots(dropped);
+    }
+}
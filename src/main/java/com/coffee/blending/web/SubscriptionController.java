@@ -0,0 +1,99 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.subscription.RecipeSubscription;
+import com.coffee.blending.subscription.RecipeUpdate;
+import com.coffee.blending.subscription.RecipeUpdateListener;
+import com.coffee.blending.subscription.SubscriptionService;
+import com.coffee.blending.tenant.TenantScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Standing recipes against the server-side inventory. Updates are pushed over
+ * Server-Sent Events whenever an inventory change forces a re-solve.
+ */
+@RestController
+@RequestMapping("/api/v1/subscriptions")
+@RequiredArgsConstructor
+public class SubscriptionController {
+
+    private final SubscriptionService subscriptionService;
+    private final TenantScheduler tenantScheduler;
+
+    @PostMapping
+    public ResponseEntity<RecipeSubscription> subscribe(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @RequestBody SubscriptionRequest request) {
+        if (request.getTarget() == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        return ResponseEntity.ok(subscriptionService.subscribe(tenantScheduler.resolve(tenant), request.getTarget(),
+                request.getParams(), request.getAlgorithm()));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<RecipeSubscription>> list(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant) {
+        return ResponseEntity.ok(subscriptionService.list(tenantScheduler.resolve(tenant)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<RecipeSubscription> get(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @PathVariable String id) {
+        RecipeSubscription subscription = subscriptionService.get(tenantScheduler.resolve(tenant), id);
+        return subscription == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(subscription);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> unsubscribe(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @PathVariable String id) {
+        return subscriptionService.unsubscribe(tenantScheduler.resolve(tenant), id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * SSE stream of RecipeUpdate events for one subscription (event name "recipe").
+     */
+    @GetMapping("/{id}/events")
+    public SseEmitter events(
+            @RequestHeader(name = TenantScheduler.HEADER, required = false) String tenant,
+            @PathVariable String id) {
+        if (subscriptionService.get(tenantScheduler.resolve(tenant), id) == null) {
+            throw new IllegalArgumentException("Unknown subscription: " + id);
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        RecipeUpdateListener listener = new RecipeUpdateListener() {
+            @Override
+            public void onUpdate(RecipeUpdate update) {
+                if (!id.equals(update.getSubscriptionId())) {
+                    return;
+                }
+                try {
+                    emitter.send(SseEmitter.event().name("recipe").data(update));
+                } catch (IOException e) {
+                    subscriptionService.removeListener(this);
+                    emitter.completeWithError(e);
+                }
+            }
+        };
+        subscriptionService.addListener(listener);
+        emitter.onCompletion(() -> subscriptionService.removeListener(listener));
+        emitter.onTimeout(() -> subscriptionService.removeListener(listener));
+        return emitter;
+    }
+}
@@ -0,0 +1,16 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriptionRequest {
+    private BlendingTarget target;
+    private OptimizerParams params;
+    private String algorithm; // "DEFAULT" or "HYBRID"
+}
@@ -0,0 +1,28 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.tenant.TenantScheduler;
+import com.coffee.blending.tenant.TenantStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Live solver usage per tenant (running, queued, CPU budget left). The same numbers
+ * are exported as blending.tenant.* meters.
+ */
+@RestController
+@RequestMapping("/api/v1/tenants")
+@RequiredArgsConstructor
+public class TenantController {
+
+    private final TenantScheduler tenantScheduler;
+
+    @GetMapping
+    public ResponseEntity<List<TenantStats>> stats() {
+        return ResponseEntity.ok(tenantScheduler.stats());
+    }
+}
@@ -0,0 +1,15 @@
+package com.coffee.blending.web;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WhatIfRequest {
+    private String resultId;   // from a result optimized with sensitivity = true
+    private String batchId;
+    private double priceDelta; // VND/kg, e.g. 10000 for "+10k/kg"
+    private double stockDelta; // kg, e.g. 200 for "200kg more"
+}
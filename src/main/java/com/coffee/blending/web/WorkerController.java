@@ -0,0 +1,62 @@
+package com.coffee.blending.web;
+
+import com.coffee.blending.cluster.UnknownInventoryException;
+import com.coffee.blending.cluster.WorkerInfo;
+import com.coffee.blending.cluster.WorkerRequest;
+import com.coffee.blending.cluster.WorkerResponse;
+import com.coffee.blending.cluster.WorkerService;
+import com.coffee.blending.domain.CoffeeBatch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Worker side of the cluster protocol. Only exposed with blending.cluster.worker.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/v1/worker")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "blending.cluster.worker.enabled", havingValue = "true")
+public class WorkerController {
+
+    private final WorkerService workerService;
+
+    @GetMapping("/info")
+    public ResponseEntity<WorkerInfo> info() {
+        return ResponseEntity.ok(workerService.info());
+    }
+
+    @PutMapping("/inventories/{key}")
+    public ResponseEntity<Void> stage(@PathVariable String key, @RequestBody List<CoffeeBatch> batches) {
+        workerService.stage(key, batches);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/inventories/{key}")
+    public ResponseEntity<Void> release(@PathVariable String key) {
+        workerService.release(key);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/solve")
+    public ResponseEntity<WorkerResponse> solve(@RequestBody WorkerRequest request) {
+        return ResponseEntity.ok(workerService.solve(request));
+    }
+
+    @ExceptionHandler(UnknownInventoryException.class)
+    public ResponseEntity<String> unknownInventory(UnknownInventoryException e) {
+        return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.AlternativesOptions;
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingResult;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * No-good cuts must find the same backups under both formulations, in particular backups
+ * that swap a lot for its smaller twin, which the TIGHT lot ordering alone would forbid.
+ */
+class AlternativeSearchTest {
+
+    @BeforeAll
+    static void loadNatives() {
+        ModelTightenerTest.loadNatives();
+    }
+
+    @Test
+    void backupsUsingTheSmallerTwinSurviveTheSymmetryRows() {
+        // Flavors match the target, so only price counts (in thousands): {big, small} 100, {big, C} 120,
+        // then {small, C} 125 ahead of {big, D} 140. The third recipe keeps only the smaller twin.
+        BatchColumns lots = new BatchColumns(4);
+        lots.add("big", "big", 100_000, 5, 5, 5, 5, 60, 10);
+        lots.add("small", "small", 100_000, 5, 5, 5, 5, 50, 10);
+        lots.add("C", "C", 150_000, 5, 5, 5, 5, 100, 10);
+        lots.add("D", "D", 200_000, 5, 5, 5, 5, 100, 10);
+        BlendingTarget target = ModelTightenerTest.simpleTarget(2, 0.0);
+        OptimizerParams params = OptimizerParams.defaults().toBuilder().expiryPenaltyPerDay(0).build();
+        AlternativesOptions options = AlternativesOptions.builder().count(3).minDiversity(1).build();
+
+        List<BlendingResult> standard = run(Formulation.STANDARD, lots, target, params, options);
+        List<BlendingResult> tight = run(Formulation.TIGHT, lots, target, params, options);
+
+        assertEquals(3, standard.size());
+        assertEquals(3, tight.size());
+        double[] expected = {100.0, 120.0, 125.0};
+        for (int k = 0; k < 3; k++) {
+            assertEquals(expected[k], standard.get(k).getObjectiveValue(), 1e-6, "standard #" + k);
+            assertEquals(expected[k], tight.get(k).getObjectiveValue(), 1e-6, "tight #" + k);
+            assertEquals(standard.get(k).getComposition().keySet(), tight.get(k).getComposition().keySet());
+        }
+        assertEquals(Set.of("small", "C"), tight.get(2).getComposition().keySet());
+    }
+
+    private static List<BlendingResult> run(Formulation formulation, BatchColumns lots, BlendingTarget target,
+                                            OptimizerParams params, AlternativesOptions options) {
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        try {
+            BlendingModel model = ModelTightenerTest.google(formulation).buildModel(solver, lots, target, params);
+            List<BlendingResult> found = AlternativeSearch.run(model, options, 10_000,
+                    (status, durationMs) -> result(model, status));
+            if (formulation == Formulation.TIGHT) {
+                assertEquals(1, model.symmetryRows.size());
+                for (MPConstraint row : model.symmetryRows) {
+                    assertEquals(-MPSolver.infinity(), row.lb(), "symmetry row still active after a no-good cut");
+                }
+            }
+            return found;
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private static BlendingResult result(BlendingModel model, MPSolver.ResultStatus status) {
+        Map<String, Double> composition = new HashMap<>();
+        for (int i = 0; i < model.x.length; i++) {
+            double ratio = model.x[i].solutionValue();
+            if (ratio > 1e-4) {
+                composition.put(model.batches.id(i), ratio);
+            }
+        }
+        return BlendingResult.builder()
+                .feasible(true)
+                .status(status.name())
+                .objectiveValue(model.objective.value())
+                .composition(composition)
+                .build();
+    }
+}
@@ -0,0 +1,220 @@
+package com.coffee.blending.engine;
+
+import com.coffee.blending.domain.BatchColumns;
+import com.coffee.blending.domain.BlendingTarget;
+import com.coffee.blending.domain.OptimizerParams;
+import com.coffee.blending.metrics.OptimizerMetrics;
+import com.coffee.blending.tracing.SolverTracer;
+import com.google.ortools.linearsolver.MPConstraint;
+import com.google.ortools.linearsolver.MPSolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TIGHT may only cut off LP points and symmetric copies: on every instance it must reach
+ * the same status and optimum as STANDARD. Instances are small enough for SCIP to prove
+ * optimality, so the comparison is exact and deterministic.
+ */
+class ModelTightenerTest {
+
+    private static final double OBJECTIVE_TOLERANCE = 1e-6;
+
+    interface ModelBuilder {
+        BlendingModel build(MPSolver solver, BatchColumns batches, BlendingTarget target, OptimizerParams params);
+    }
+
+    private static NativeSolverLoader nativeLoader;
+    private static OptimizerMetrics metrics;
+    private static SolverTracer tracer;
+
+    @BeforeAll
+    static void loadNatives() {
+        nativeLoader = new NativeSolverLoader();
+        nativeLoader.ensureLoaded();
+        metrics = new OptimizerMetrics(new SimpleMeterRegistry());
+        tracer = new SolverTracer(false);
+    }
+
+    static GoogleOrToolsOptimizer google(Formulation formulation) {
+        return new GoogleOrToolsOptimizer(nativeLoader, metrics, tracer, new SolverTuning("", formulation));
+    }
+
+    static HybridOptimizer hybrid(Formulation formulation) {
+        return new HybridOptimizer(nativeLoader, metrics, tracer, new SolverTuning("", formulation));
+    }
+
+    @Test
+    void standardAndTightReachTheSameOptimumOnSeededInstances() {
+        ModelBuilder[] standard = {google(Formulation.STANDARD)::buildModel, hybrid(Formulation.STANDARD)::buildModel};
+        ModelBuilder[] tight = {google(Formulation.TIGHT)::buildModel, hybrid(Formulation.TIGHT)::buildModel};
+        int optimal = 0;
+        for (long seed = 1; seed <= 5; seed++) {
+            BatchColumns lots = lotsWithTwins(seed, 10);
+            for (BlendingTarget.OptimizationMode mode : BlendingTarget.OptimizationMode.values()) {
+                for (double minRatio : new double[]{0.0, 0.1}) {
+                    BlendingTarget target = target(new Random(seed), mode, minRatio);
+                    OptimizerParams params = HybridOptimizer.resolveProfile(OptimizerParams.defaults(), target);
+                    for (int engine = 0; engine < standard.length; engine++) {
+                        String label = "seed " + seed + " " + mode + " minRatio " + minRatio + " engine " + engine;
+                        Outcome a = solve(standard[engine], lots, target, params);
+                        Outcome b = solve(tight[engine], lots, target, params);
+                        assertEquals(a.status(), b.status(), label);
+                        if (a.status() == MPSolver.ResultStatus.OPTIMAL) {
+                            optimal++;
+                            assertEquals(a.objective(), b.objective(),
+                                    OBJECTIVE_TOLERANCE * Math.max(1.0, Math.abs(a.objective())), label);
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(optimal > 0, "no instance was solved to optimality");
+    }
+
+    @Test
+    void cardinalityWindowCoversFewestFillingLotsAndMostThatFit() {
+        // Every lot covers at most 30%: 4 are needed, minRatio 0.2 lets at most 5 fit
+        BatchColumns lots = new BatchColumns(6);
+        for (int i = 0; i < 6; i++) {
+            lots.add("L" + i, "L" + i, 100_000 + i * 10_000, 5, 5, 5, 5, 30, 10);
+        }
+        BlendingTarget target = simpleTarget(6, 0.2);
+        withStandardModel(lots, target, model -> {
+            ModelTightener.tighten(model, target);
+            MPConstraint card = constraint(model.solver, "card_cut");
+            assertNotNull(card);
+            assertEquals(4.0, card.lb());
+            assertEquals(5.0, card.ub());
+            for (int i = 0; i < 6; i++) {
+                assertEquals(1.0, card.getCoefficient(model.y[i]));
+            }
+        });
+    }
+
+    @Test
+    void shareCapAndStockAwareLinking() {
+        // Three of the 45% lots fill the blend, so with minRatio 0.3 none can exceed 1 - 2 * 0.3
+        BatchColumns lots = new BatchColumns(5);
+        for (int i = 0; i < 4; i++) {
+            lots.add("L" + i, "L" + i, 100_000 + i * 10_000, 5, 5, 5, 5, 45, 10);
+        }
+        lots.add("small", "small", 90_000, 5, 5, 5, 5, 20, 10); // 20% < minRatio
+        BlendingTarget target = simpleTarget(0, 0.3);
+        withStandardModel(lots, target, model -> {
+            assertEquals(0.45, model.x[0].ub(), 1e-12);
+            ModelTightener.tighten(model, target);
+            for (int i = 0; i < 4; i++) {
+                assertEquals(0.4, model.x[i].ub(), 1e-12);
+                assertEquals(-0.4, model.linkUp[i].getCoefficient(model.y[i]), 1e-12);
+                assertEquals(1.0, model.y[i].ub());
+            }
+            assertEquals(0.0, model.y[4].ub());
+            assertEquals(0.0, model.x[4].ub());
+        });
+    }
+
+    @Test
+    void twinsAreOrderedLargerStockFirst() {
+        BatchColumns lots = new BatchColumns(3);
+        lots.add("small-twin", "a", 100_000, 5, 5, 5, 5, 20, 10);
+        lots.add("other", "b", 120_000, 6, 4, 5, 5, 100, 10);
+        lots.add("large-twin", "c", 100_000, 5, 5, 5, 5, 40, 10);
+        BlendingTarget target = simpleTarget(0, 0.0);
+        withStandardModel(lots, target, model -> {
+            ModelTightener.tighten(model, target);
+            assertEquals(1, model.symmetryRows.size());
+            MPConstraint order = model.symmetryRows.get(0);
+            assertEquals(0.0, order.lb());
+            assertEquals(1.0, order.getCoefficient(model.y[2]));
+            assertEquals(-1.0, order.getCoefficient(model.y[0]));
+            assertEquals(0.0, order.getCoefficient(model.y[1]));
+        });
+    }
+
+    /**
+     * Random lots plus two twins (same price, flavor and expiry as an earlier lot, other stock).
+     * Integral scores keep the twins exactly equal.
+     */
+    static BatchColumns lotsWithTwins(long seed, int n) {
+        Random random = new Random(seed);
+        BatchColumns lots = new BatchColumns(n + 2);
+        for (int i = 0; i < n; i++) {
+            lots.add("L" + i, "L" + i, 80_000 + random.nextInt(13) * 10_000,
+                    1 + random.nextInt(9), 1 + random.nextInt(9), 1 + random.nextInt(9), 1 + random.nextInt(9),
+                    5 + random.nextInt(56), random.nextInt(60));
+        }
+        for (int t = 0; t < 2; t++) {
+            int twin = random.nextInt(n);
+            lots.add("T" + t, "T" + t, lots.price(twin), lots.acid(twin), lots.bitter(twin), lots.sweet(twin),
+                    lots.caffeine(twin), lots.availableStock(twin) / 2 + 5, lots.daysToExpiry(twin));
+        }
+        return lots;
+    }
+
+    private static BlendingTarget target(Random random, BlendingTarget.OptimizationMode mode, double minRatio) {
+        return BlendingTarget.builder()
+                .mode(mode)
+                .targetPrice(130_000)
+                .targetAcid(3 + random.nextInt(5))
+                .targetBitter(3 + random.nextInt(5))
+                .targetSweet(3 + random.nextInt(5))
+                .targetCaffeine(3 + random.nextInt(5))
+                .totalOutputKg(100)
+                .maxBatchTypes(5)
+                .minRatio(minRatio)
+                .build();
+    }
+
+    static BlendingTarget simpleTarget(int maxBatchTypes, double minRatio) {
+        return BlendingTarget.builder()
+                .mode(BlendingTarget.OptimizationMode.BALANCED)
+                .targetPrice(100_000)
+                .targetAcid(5).targetBitter(5).targetSweet(5).targetCaffeine(5)
+                .totalOutputKg(100)
+                .maxBatchTypes(maxBatchTypes)
+                .minRatio(minRatio)
+                .build();
+    }
+
+    private static void withStandardModel(BatchColumns lots, BlendingTarget target,
+                                          Consumer<BlendingModel> check) {
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        try {
+            check.accept(google(Formulation.STANDARD).buildModel(solver, lots, target, OptimizerParams.defaults()));
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private static MPConstraint constraint(MPSolver solver, String name) {
+        for (MPConstraint c : solver.constraints()) {
+            if (name.equals(c.name())) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private static Outcome solve(ModelBuilder builder, BatchColumns lots, BlendingTarget target,
+                                 OptimizerParams params) {
+        MPSolver solver = MPSolver.createSolver("SCIP");
+        try {
+            BlendingModel model = builder.build(solver, lots, target, params);
+            MPSolver.ResultStatus status = solver.solve();
+            return new Outcome(status, model.objective.value());
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private record Outcome(MPSolver.ResultStatus status, double objective) {
+    }
+}
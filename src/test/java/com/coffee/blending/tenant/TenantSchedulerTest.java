@@ -0,0 +1,217 @@
+package com.coffee.blending.tenant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Solves are fake suppliers that block on latches, so every scheduling decision is
+ * observed at a known point instead of depending on timing.
+ */
+class TenantSchedulerTest {
+
+    private static final long WAIT_MS = 5_000;
+
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static TenantScheduler scheduler(int slots, int maxConcurrent, double cpuSecondsPerMinute,
+                                             long queueTimeoutMs) {
+        return new TenantScheduler(new SimpleMeterRegistry(), slots, maxConcurrent, cpuSecondsPerMinute,
+                queueTimeoutMs, List.of("a", "b"));
+    }
+
+    @Test
+    void waitingTenantsAlternateForASingleSlot() throws Exception {
+        TenantScheduler scheduler = scheduler(1, 0, 0, WAIT_MS);
+        CountDownLatch hold = new CountDownLatch(1);
+        Future<?> blocker = pool.submit(() -> scheduler.run("a", () -> await(hold)));
+        awaitStats(scheduler, "a", s -> s.getRunning() == 1);
+
+        // Tenant a queues all of its solves before b queues any
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            jobs.add(pool.submit(() -> scheduler.run("a", () -> order.add("a"))));
+        }
+        awaitStats(scheduler, "a", s -> s.getQueued() == 3);
+        for (int i = 0; i < 3; i++) {
+            jobs.add(pool.submit(() -> scheduler.run("b", () -> order.add("b"))));
+        }
+        awaitStats(scheduler, "b", s -> s.getQueued() == 3);
+
+        hold.countDown();
+        blocker.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        for (Future<?> job : jobs) {
+            job.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(List.of("a", "b", "a", "b", "a", "b"), order);
+    }
+
+    @Test
+    void tenantNeverRunsMoreThanItsCapWhileOthersUseFreeSlots() throws Exception {
+        TenantScheduler scheduler = scheduler(4, 2, 0, WAIT_MS);
+        CountDownLatch hold = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Future<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            jobs.add(pool.submit(() -> scheduler.run("a", () -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                await(hold);
+                return running.decrementAndGet();
+            })));
+        }
+        awaitStats(scheduler, "a", s -> s.getRunning() == 2 && s.getQueued() == 2);
+
+        // Two slots are still free: b gets one although a has solves queued
+        assertEquals("b", pool.submit(() -> scheduler.run("b", () -> "b")).get(WAIT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(2, find(scheduler, "a").getQueued());
+
+        hold.countDown();
+        for (Future<?> job : jobs) {
+            job.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(2, peak.get());
+    }
+
+    @Test
+    void queueTimeoutIsRejectedWith429() throws Exception {
+        TenantScheduler scheduler = scheduler(1, 0, 0, 100);
+        CountDownLatch hold = new CountDownLatch(1);
+        Future<?> blocker = pool.submit(() -> scheduler.run("a", () -> await(hold)));
+        awaitStats(scheduler, "a", s -> s.getRunning() == 1);
+
+        AtomicBoolean ran = new AtomicBoolean();
+        TenantQuotaExceededException e = assertThrows(TenantQuotaExceededException.class,
+                () -> scheduler.run("b", () -> ran.getAndSet(true)));
+        assertEquals("queue-timeout", e.getReason());
+        assertEquals("b", e.getTenant());
+        assertFalse(ran.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                TenantQuotaExceededException.class.getAnnotation(ResponseStatus.class).value());
+        assertEquals(1, find(scheduler, "b").getRejected());
+        assertEquals(0, find(scheduler, "b").getQueued());
+
+        hold.countDown();
+        blocker.get(WAIT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    void spentCpuBudgetIsRejectedUntilRefilled() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isCurrentThreadCpuTimeSupported());
+        // 1 ms of CPU per minute: one solve that burns 20 ms leaves the tenant in debt
+        TenantScheduler scheduler = scheduler(2, 0, 0.001, WAIT_MS);
+        scheduler.run("a", () -> burnCpu(threads, 20));
+        assertTrue(find(scheduler, "a").getCpuBudgetSeconds() < 0);
+
+        AtomicBoolean ran = new AtomicBoolean();
+        TenantQuotaExceededException e = assertThrows(TenantQuotaExceededException.class,
+                () -> scheduler.run("a", () -> ran.getAndSet(true)));
+        assertEquals("cpu", e.getReason());
+        assertFalse(ran.get());
+        // Budgets are per tenant
+        assertEquals("b", scheduler.run("b", () -> "b"));
+    }
+
+    @Test
+    void interruptedWaiterLeavesNoSlotBehind() throws Exception {
+        TenantScheduler scheduler = scheduler(1, 0, 0, WAIT_MS);
+        CountDownLatch hold = new CountDownLatch(1);
+        Future<?> blocker = pool.submit(() -> scheduler.run("a", () -> await(hold)));
+        awaitStats(scheduler, "a", s -> s.getRunning() == 1);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean ran = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            try {
+                scheduler.run("b", () -> ran.getAndSet(true));
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        waiter.start();
+        awaitStats(scheduler, "b", s -> s.getQueued() == 1);
+        waiter.interrupt();
+        waiter.join(WAIT_MS);
+
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertFalse(ran.get());
+        assertEquals(0, find(scheduler, "b").getQueued());
+        assertEquals(0, find(scheduler, "b").getRunning());
+
+        hold.countDown();
+        blocker.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        // The single slot is free again: a new solve starts at once for either tenant
+        assertEquals("b", pool.submit(() -> scheduler.run("b", () -> "b")).get(WAIT_MS, TimeUnit.MILLISECONDS));
+        assertEquals("a", pool.submit(() -> scheduler.run("a", () -> "a")).get(WAIT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(0, find(scheduler, "a").getRunning());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long burnCpu(ThreadMXBean threads, long millis) {
+        long start = threads.getCurrentThreadCpuTime();
+        long x = 0;
+        while (threads.getCurrentThreadCpuTime() - start < TimeUnit.MILLISECONDS.toNanos(millis)) {
+            x += System.nanoTime() % 7;
+        }
+        return x;
+    }
+
+    private static TenantStats find(TenantScheduler scheduler, String tenant) {
+        for (TenantStats stats : scheduler.stats()) {
+            if (stats.getTenant().equals(tenant)) {
+                return stats;
+            }
+        }
+        return TenantStats.builder().tenant(tenant).build();
+    }
+
+    private static void awaitStats(TenantScheduler scheduler, String tenant, Predicate<TenantStats> condition)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        while (!condition.test(find(scheduler, tenant))) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for tenant " + tenant + ": " + find(scheduler, tenant));
+            }
+            Thread.sleep(1);
+        }
+    }
+}